@@ -0,0 +1,152 @@
+package com.consolechess;
+
+/**
+ * Precomputed attack tables for the leaping pieces (knight, king and pawn) plus the
+ * square-to-square ray tables used for pin and check masks.
+ *
+ * <p>All tables are built once when the class is loaded and are indexed by square
+ * index ({@code row * 8 + column}, so 0 = a8 and 63 = h1). Each entry is a bitboard
+ * of the squares attacked from that square, which lets attack detection be written
+ * as a single lookup ANDed with the relevant piece bitboard.</p>
+ *
+ * <p>This class is immutable after initialization and therefore thread-safe.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Attacks {
+
+    private static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+
+    private static final int[][] KNIGHT_OFFSETS = {
+        {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+
+    private static final int[][] KING_OFFSETS = {
+        {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[SQUARES];
+    private static final long[] KING_ATTACKS = new long[SQUARES];
+    private static final long[][] PAWN_ATTACKS = new long[PieceColor.values().length][SQUARES];
+    private static final long[][] BETWEEN = new long[SQUARES][SQUARES];
+    private static final long[][] LINE = new long[SQUARES][SQUARES];
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            int row = square / Board.BOARD_SIZE;
+            int col = square % Board.BOARD_SIZE;
+            KNIGHT_ATTACKS[square] = offsetsToBitboard(row, col, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = offsetsToBitboard(row, col, KING_OFFSETS);
+            // White pawns move towards row 0, black pawns towards row 7
+            PAWN_ATTACKS[PieceColor.WHITE.ordinal()][square] =
+                offsetsToBitboard(row, col, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[PieceColor.BLACK.ordinal()][square] =
+                offsetsToBitboard(row, col, new int[][]{{1, -1}, {1, 1}});
+            initializeRays(square, row, col);
+        }
+    }
+
+    /**
+     * Fill BETWEEN and LINE for every square sharing a rank, file or diagonal with the
+     * given square.
+     */
+    private static void initializeRays(int square, int row, int col) {
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue;
+                }
+                // Full line through the square in this direction and its opposite
+                long line = 1L << square;
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    for (int r = row + sign * dr, c = col + sign * dc; Position.isValidPosition(r, c);
+                         r += sign * dr, c += sign * dc) {
+                        line |= 1L << (r * Board.BOARD_SIZE + c);
+                    }
+                }
+                long between = 0L;
+                for (int r = row + dr, c = col + dc; Position.isValidPosition(r, c); r += dr, c += dc) {
+                    int target = r * Board.BOARD_SIZE + c;
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= 1L << target;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+        // Static lookup tables only
+    }
+
+    private static long offsetsToBitboard(int row, int col, int[][] offsets) {
+        long bitboard = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (Position.isValidPosition(r, c)) {
+                bitboard |= 1L << (r * Board.BOARD_SIZE + c);
+            }
+        }
+        return bitboard;
+    }
+
+    /**
+     * Returns the squares attacked by a knight on the given square.
+     *
+     * @param square the square index (0-63)
+     * @return bitboard of attacked squares
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares attacked by a king on the given square.
+     *
+     * @param square the square index (0-63)
+     * @return bitboard of attacked squares
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares attacked by a pawn of the given color on the given square.
+     *
+     * <p>Because pawn captures are symmetric, {@code pawnAttacks(color.opposite(), s)}
+     * is also the set of squares from which a {@code color} pawn would attack {@code s}.</p>
+     *
+     * @param color the pawn's color (not null)
+     * @param square the square index (0-63)
+     * @return bitboard of attacked squares
+     */
+    public static long pawnAttacks(PieceColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Returns the squares strictly between two squares on a shared rank, file or diagonal.
+     *
+     * @param from the first square index (0-63)
+     * @param to the second square index (0-63)
+     * @return bitboard of intermediate squares, or 0 if the squares are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns the full board-edge-to-edge line through two aligned squares.
+     *
+     * @param from the first square index (0-63)
+     * @param to the second square index (0-63)
+     * @return bitboard of the rank, file or diagonal through both squares, or 0 if they
+     *         are not aligned
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+}
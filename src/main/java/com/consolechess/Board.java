@@ -15,6 +15,11 @@ import java.util.*;
  *   <li>Board serialization for save/load functionality</li>
  * </ul>
  * 
+ * <p>Piece placement is stored as twelve 64-bit piece bitboards (one per piece type and
+ * color) plus per-color occupancy masks, so attack and occupancy tests reduce to mask
+ * operations. {@link #getPiece(Position)} and {@link #setPiece(Position, Piece)} remain
+ * available as square-by-square views over the bitboards.</p>
+ * 
  * <p>The board uses a standard coordinate system where:</p>
  * <ul>
  *   <li>Rows: 0-7 (0=rank 8, 7=rank 1 in chess notation)</li>
@@ -70,26 +75,93 @@ public class Board {
     /** Queenside rook starting column */
     public static final int QUEENSIDE_ROOK_COLUMN = 0;
     
-    // Game state
-    private final Piece[][] squares;
+    /** Castling right bit: white may castle kingside */
+    public static final int CASTLE_WHITE_KINGSIDE = 1;
+    
+    /** Castling right bit: white may castle queenside */
+    public static final int CASTLE_WHITE_QUEENSIDE = 2;
+    
+    /** Castling right bit: black may castle kingside */
+    public static final int CASTLE_BLACK_KINGSIDE = 4;
+    
+    /** Castling right bit: black may castle queenside */
+    public static final int CASTLE_BLACK_QUEENSIDE = 8;
+    
+    /** All four castling rights */
+    public static final int CASTLE_ALL = 15;
+    
+    /** Maximum number of moves that can be outstanding on the undo stack */
+    public static final int MAX_UNDO_DEPTH = 2048;
+    
+    /** Number of distinct coloured piece kinds (6 types x 2 colours) */
+    public static final int PIECE_KINDS = Piece.COUNT;
+    
+    /** Mailbox marker for an empty square */
+    private static final int EMPTY = -1;
+    
+    /** Number of piece types per colour (values() clones its array, so cache the length) */
+    private static final int PIECE_TYPES = PieceType.values().length;
+    
+    /** Castling rights kept when a move touches each square (king and rook home squares clear rights) */
+    private static final int[] CASTLING_RIGHTS_MASK = new int[BOARD_SIZE * BOARD_SIZE];
+    
+    static {
+        Arrays.fill(CASTLING_RIGHTS_MASK, CASTLE_ALL);
+        CASTLING_RIGHTS_MASK[squareIndex(WHITE_BACK_RANK, KING_START_COLUMN)] &= ~(CASTLE_WHITE_KINGSIDE | CASTLE_WHITE_QUEENSIDE);
+        CASTLING_RIGHTS_MASK[squareIndex(WHITE_BACK_RANK, KINGSIDE_ROOK_COLUMN)] &= ~CASTLE_WHITE_KINGSIDE;
+        CASTLING_RIGHTS_MASK[squareIndex(WHITE_BACK_RANK, QUEENSIDE_ROOK_COLUMN)] &= ~CASTLE_WHITE_QUEENSIDE;
+        CASTLING_RIGHTS_MASK[squareIndex(BLACK_BACK_RANK, KING_START_COLUMN)] &= ~(CASTLE_BLACK_KINGSIDE | CASTLE_BLACK_QUEENSIDE);
+        CASTLING_RIGHTS_MASK[squareIndex(BLACK_BACK_RANK, KINGSIDE_ROOK_COLUMN)] &= ~CASTLE_BLACK_KINGSIDE;
+        CASTLING_RIGHTS_MASK[squareIndex(BLACK_BACK_RANK, QUEENSIDE_ROOK_COLUMN)] &= ~CASTLE_BLACK_QUEENSIDE;
+    }
+    
+    // Game state: one bitboard per piece kind, per-colour occupancy and a square-indexed mailbox.
+    // Square index = row * 8 + column, so bit 0 is a8 and bit 63 is h1.
+    private final long[] pieceBitboards;
+    private final long[] colorOccupancy;
+    private long occupied;
+    private final int[] mailbox;
+    
+    // Square index of each side's king (indexed by colour ordinal), or -1 if it has none
+    private final int[] kingSquares;
     
     // Display configuration
     private Piece.DisplayMode displayMode = Piece.DisplayMode.COLORED_BRACKETED;
     
-    // Castling rights tracking
-    private boolean whiteKingMoved;
-    private boolean blackKingMoved;
-    private boolean whiteKingsideRookMoved;
-    private boolean whiteQueensideRookMoved;
-    private boolean blackKingsideRookMoved;
-    private boolean blackQueensideRookMoved;
+    // Castling rights tracking (CASTLE_* bits)
+    private int castlingRights;
     
     // En passant tracking
-    private Position enPassantTarget; // The square that can be captured en passant
+    private int enPassantTarget; // Square index that can be captured en passant, or -1
     private int lastMoveNumber; // Track move number for en passant timing
+    private int halfmoveClock; // Half-moves since the last capture or pawn move (fifty-move rule)
+    
+    // Side to move, flipped by every move and take-back
+    private PieceColor sideToMove;
+    
+    // Zobrist key of the current position and of its pawns alone, kept up to date by every board change
+    private long hash;
+    private long pawnHash;
+    
+    // Packed Score sum of PieceSquareTables values over all pieces (White's view) and the
+    // game phase of the pieces on the board, kept up to date likewise
+    private int psqScore;
+    private int phase;
     
-    // Move history for save/load functionality
-    private final List<String> moveHistory;
+    // Undo stack: one entry per move made with makeMove and not yet taken back
+    private final int[] undoMoves;
+    private final int[] undoCaptured;
+    private final int[] undoCastlingRights;
+    private final int[] undoEnPassant;
+    private final long[] undoHash;
+    private final int[] undoHalfmoveClock;
+    private int undoDepth;
+    
+    // Moves loaded from a saved game, which precede the moves on the undo stack
+    private int[] loadedHistory;
+    
+    // Legal move generation (check and pin masks)
+    private final MoveGenerator moveGenerator;
     
     /**
      * Constructs a new chess board in the standard starting position.
@@ -99,21 +171,67 @@ public class Board {
      *   <li>8x8 board with pieces in standard chess starting positions</li>
      *   <li>All castling rights enabled</li>
      *   <li>No en passant target</li>
-     *   <li>Empty move history</li>
+     *   <li>White to move</li>
+     *   <li>Empty move history and undo stack</li>
      * </ul>
      */
     public Board() {
-        this.squares = new Piece[BOARD_SIZE][BOARD_SIZE];
-        this.whiteKingMoved = false;
-        this.blackKingMoved = false;
-        this.whiteKingsideRookMoved = false;
-        this.whiteQueensideRookMoved = false;
-        this.blackKingsideRookMoved = false;
-        this.blackQueensideRookMoved = false;
-        this.enPassantTarget = null;
+        this.pieceBitboards = new long[PIECE_KINDS];
+        this.colorOccupancy = new long[PieceColor.values().length];
+        this.mailbox = new int[BOARD_SIZE * BOARD_SIZE];
+        this.kingSquares = new int[PieceColor.values().length];
+        this.castlingRights = CASTLE_ALL;
+        this.enPassantTarget = -1;
         this.lastMoveNumber = 0;
-        this.moveHistory = new ArrayList<>();
+        this.sideToMove = PieceColor.WHITE;
+        this.undoMoves = new int[MAX_UNDO_DEPTH];
+        this.undoCaptured = new int[MAX_UNDO_DEPTH];
+        this.undoCastlingRights = new int[MAX_UNDO_DEPTH];
+        this.undoEnPassant = new int[MAX_UNDO_DEPTH];
+        this.undoHash = new long[MAX_UNDO_DEPTH];
+        this.undoHalfmoveClock = new int[MAX_UNDO_DEPTH];
+        this.undoDepth = 0;
+        this.loadedHistory = new int[0];
+        this.moveGenerator = new MoveGenerator(this);
         initializeBoard();
+        this.hash = computeHash();
+    }
+    
+    /**
+     * Constructs an independent copy of another board, including its undo stack and
+     * move history, so that the copy can be searched on another thread.
+     * 
+     * @param other the board to copy (not null)
+     * @throws IllegalArgumentException if other is null
+     */
+    public Board(Board other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Board to copy cannot be null");
+        }
+        this.pieceBitboards = other.pieceBitboards.clone();
+        this.colorOccupancy = other.colorOccupancy.clone();
+        this.occupied = other.occupied;
+        this.mailbox = other.mailbox.clone();
+        this.kingSquares = other.kingSquares.clone();
+        this.displayMode = other.displayMode;
+        this.castlingRights = other.castlingRights;
+        this.enPassantTarget = other.enPassantTarget;
+        this.lastMoveNumber = other.lastMoveNumber;
+        this.sideToMove = other.sideToMove;
+        this.undoMoves = other.undoMoves.clone();
+        this.undoCaptured = other.undoCaptured.clone();
+        this.undoCastlingRights = other.undoCastlingRights.clone();
+        this.undoEnPassant = other.undoEnPassant.clone();
+        this.undoHash = other.undoHash.clone();
+        this.undoHalfmoveClock = other.undoHalfmoveClock.clone();
+        this.halfmoveClock = other.halfmoveClock;
+        this.undoDepth = other.undoDepth;
+        this.hash = other.hash;
+        this.pawnHash = other.pawnHash;
+        this.psqScore = other.psqScore;
+        this.phase = other.phase;
+        this.loadedHistory = other.loadedHistory;
+        this.moveGenerator = new MoveGenerator(this);
     }
     
     /**
@@ -134,47 +252,147 @@ public class Board {
         // Clear the entire board first
         clearBoard();
         
-        // Place white pieces on back rank (row 7 = rank 1)
-        squares[WHITE_BACK_RANK][QUEENSIDE_ROOK_COLUMN] = new Piece(PieceType.ROOK, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][1] = new Piece(PieceType.KNIGHT, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][2] = new Piece(PieceType.BISHOP, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][3] = new Piece(PieceType.QUEEN, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][KING_START_COLUMN] = new Piece(PieceType.KING, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][5] = new Piece(PieceType.BISHOP, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][6] = new Piece(PieceType.KNIGHT, PieceColor.WHITE);
-        squares[WHITE_BACK_RANK][KINGSIDE_ROOK_COLUMN] = new Piece(PieceType.ROOK, PieceColor.WHITE);
-        
-        // Place white pawns on second rank (row 6 = rank 2)
+        // Place both sides' back ranks and pawns (row 7 = rank 1, row 0 = rank 8)
+        PieceType[] backRank = {
+            PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+            PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK
+        };
         for (int col = 0; col < BOARD_SIZE; col++) {
-            squares[WHITE_PAWN_RANK][col] = new Piece(PieceType.PAWN, PieceColor.WHITE);
-        }
-        
-        // Place black pieces on back rank (row 0 = rank 8)
-        squares[BLACK_BACK_RANK][QUEENSIDE_ROOK_COLUMN] = new Piece(PieceType.ROOK, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][1] = new Piece(PieceType.KNIGHT, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][2] = new Piece(PieceType.BISHOP, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][3] = new Piece(PieceType.QUEEN, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][KING_START_COLUMN] = new Piece(PieceType.KING, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][5] = new Piece(PieceType.BISHOP, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][6] = new Piece(PieceType.KNIGHT, PieceColor.BLACK);
-        squares[BLACK_BACK_RANK][KINGSIDE_ROOK_COLUMN] = new Piece(PieceType.ROOK, PieceColor.BLACK);
-        
-        // Place black pawns on seventh rank (row 1 = rank 7)
-        for (int col = 0; col < BOARD_SIZE; col++) {
-            squares[BLACK_PAWN_RANK][col] = new Piece(PieceType.PAWN, PieceColor.BLACK);
+            putPiece(squareIndex(WHITE_BACK_RANK, col), pieceIndex(backRank[col], PieceColor.WHITE));
+            putPiece(squareIndex(WHITE_PAWN_RANK, col), pieceIndex(PieceType.PAWN, PieceColor.WHITE));
+            putPiece(squareIndex(BLACK_BACK_RANK, col), pieceIndex(backRank[col], PieceColor.BLACK));
+            putPiece(squareIndex(BLACK_PAWN_RANK, col), pieceIndex(PieceType.PAWN, PieceColor.BLACK));
         }
     }
     
     /**
      * Clear all pieces from the board.
-     * Sets all squares to null, creating an empty board.
+     * Empties every bitboard and mailbox square, creating an empty board.
      */
     private void clearBoard() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                squares[row][col] = null;
-            }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupied = 0L;
+        Arrays.fill(mailbox, EMPTY);
+        Arrays.fill(kingSquares, -1);
+        pawnHash = 0L;
+        psqScore = Score.ZERO;
+        phase = 0;
+    }
+    
+    /**
+     * Compute the index of a coloured piece kind into the piece bitboard array.
+     * This is the same value as {@link Piece#getIndex()}.
+     * 
+     * @param type the piece type
+     * @param color the piece color
+     * @return index in the range [0, {@link #PIECE_KINDS})
+     */
+    static int pieceIndex(PieceType type, PieceColor color) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+    
+    /**
+     * Convert row/column coordinates to a square index (0 = a8, 63 = h1).
+     */
+    static int squareIndex(int row, int column) {
+        return row * BOARD_SIZE + column;
+    }
+    
+    private static int squareIndex(Position position) {
+        return position.toIndex();
+    }
+    
+    private static Position squareToPosition(int square) {
+        return Position.of(square);
+    }
+    
+    /**
+     * Place a piece kind on an empty square, updating all bitboards, the king squares,
+     * the Zobrist keys, the piece-square score and the game phase.
+     */
+    private void putPiece(int square, int piece) {
+        long bit = 1L << square;
+        int color = piece / PIECE_TYPES;
+        pieceBitboards[piece] |= bit;
+        colorOccupancy[color] |= bit;
+        occupied |= bit;
+        mailbox[square] = piece;
+        hash ^= Zobrist.piece(piece, square);
+        pawnHash ^= Zobrist.pawn(piece, square);
+        psqScore += PieceSquareTables.value(piece, square);
+        phase += PieceSquareTables.phaseWeight(piece);
+        if (piece % PIECE_TYPES == PieceType.KING.ordinal()) {
+            kingSquares[color] = square;
+        }
+    }
+    
+    /**
+     * Remove whatever piece occupies a square, updating all bitboards, the king squares,
+     * the Zobrist keys, the piece-square score and the game phase.
+     */
+    private void removePiece(int square) {
+        int piece = mailbox[square];
+        if (piece == EMPTY) {
+            return;
         }
+        long bit = 1L << square;
+        int color = piece / PIECE_TYPES;
+        pieceBitboards[piece] &= ~bit;
+        colorOccupancy[color] &= ~bit;
+        occupied &= ~bit;
+        mailbox[square] = EMPTY;
+        hash ^= Zobrist.piece(piece, square);
+        pawnHash ^= Zobrist.pawn(piece, square);
+        psqScore -= PieceSquareTables.value(piece, square);
+        phase -= PieceSquareTables.phaseWeight(piece);
+        if (kingSquares[color] == square) {
+            // Set-up positions may hold a second king; fall back to any that remains
+            long kings = pieceBitboards[color * PIECE_TYPES + PieceType.KING.ordinal()];
+            kingSquares[color] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+        }
+    }
+    
+    /**
+     * Returns the bitboard of all pieces of the given type and color.
+     * Bit {@code row * 8 + column} is set for every occupied square.
+     * 
+     * @param type the piece type (not null)
+     * @param color the piece color (not null)
+     * @return the piece bitboard
+     */
+    public long getPieceBitboard(PieceType type, PieceColor color) {
+        return pieceBitboards[pieceIndex(type, color)];
+    }
+    
+    /**
+     * Returns the occupancy bitboard of all pieces of one color.
+     * 
+     * @param color the piece color (not null)
+     * @return the color occupancy bitboard
+     */
+    public long getOccupancy(PieceColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+    
+    /**
+     * Returns the occupancy bitboard of all pieces on the board.
+     * 
+     * @return the combined occupancy bitboard
+     */
+    public long getOccupancy() {
+        return occupied;
+    }
+    
+    /**
+     * Returns the square index of a side's king. The square is tracked as pieces move,
+     * so no board scan is needed.
+     * 
+     * @param color the king's color (not null)
+     * @return the square index (0 = a8, 63 = h1), or -1 if that side has no king
+     */
+    public int getKingSquare(PieceColor color) {
+        return kingSquares[color.ordinal()];
     }
     
     /**
@@ -190,7 +408,8 @@ public class Board {
         }
         
         if (isValidPosition(position)) {
-            return squares[position.getRow()][position.getColumn()];
+            int piece = mailbox[squareIndex(position)];
+            return piece == EMPTY ? null : Piece.fromIndex(piece);
         }
         return null;
     }
@@ -211,7 +430,11 @@ public class Board {
             throw new IllegalArgumentException("Position is outside the board: " + position);
         }
         
-        squares[position.getRow()][position.getColumn()] = piece;
+        int square = squareIndex(position);
+        removePiece(square);
+        if (piece != null) {
+            putPiece(square, piece.getIndex());
+        }
     }
     
     /**
@@ -245,360 +468,558 @@ public class Board {
             return false;
         }
         
-        Piece targetPiece = getPiece(to);
-        if (targetPiece != null && targetPiece.getColor() == playerColor) {
-            return false; // Cannot capture own piece
+        // Legal targets already exclude own pieces, blocked paths and moves that leave
+        // the player's king in check
+        moveGenerator.prepare(playerColor);
+        return (moveGenerator.legalTargets(squareIndex(from)) & (1L << squareIndex(to))) != 0;
+    }
+    
+    /**
+     * Check if an encoded move is legal for the side to move in the current position.
+     * 
+     * <p>The move must match exactly what the move generator would produce, including
+     * its flags and, for a pawn reaching the last rank, a promotion to a queen, rook,
+     * bishop or knight.</p>
+     * 
+     * @param move the encoded {@link Move}
+     * @return true if the move can be passed to {@link #makeMove(int)}
+     */
+    public boolean isLegalMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (mailbox[from] == EMPTY || Piece.fromIndex(mailbox[from]).getColor() != sideToMove) {
+            return false;
         }
-        
-        // First ensure the piece's movement pattern is valid and, where relevant,
-        // that the path between from and to is clear
-        if (!isValidPieceMove(piece, from, to)) {
+        moveGenerator.prepare(sideToMove);
+        if ((moveGenerator.legalTargets(from) & (1L << to)) == 0) {
             return false;
         }
-        
-        // Simulate the move and ensure it does not leave the player's king in check
-        Piece captured = getPiece(to);
-        setPiece(to, piece);
-        setPiece(from, null);
-        boolean leavesKingInCheck = isInCheck(playerColor);
-        // revert
-        setPiece(from, piece);
-        setPiece(to, captured);
-        
-        return !leavesKingInCheck;
+        PieceType promotion = Move.promotion(move);
+        if (isPromotionSquare(from, to) != (promotion != null)
+                || promotion == PieceType.PAWN || promotion == PieceType.KING) {
+            return false;
+        }
+        return move == encodeMove(from, to, promotion);
+    }
+    
+    /**
+     * Find the legal move of the side to move between two squares.
+     * 
+     * @param from the origin position (not null)
+     * @param to the destination position (not null)
+     * @param promotion the piece a pawn reaching the last rank becomes; ignored for
+     *                  other moves
+     * @return the encoded {@link Move}, or {@link Move#NONE} if the move is illegal or a
+     *         required promotion piece is missing
+     */
+    public int findLegalMove(Position from, Position to, PieceType promotion) {
+        if (!isValidMove(from, to, sideToMove)) {
+            return Move.NONE;
+        }
+        int fromSquare = squareIndex(from);
+        int toSquare = squareIndex(to);
+        int move = encodeMove(fromSquare, toSquare, isPromotionSquare(fromSquare, toSquare) ? promotion : null);
+        return isLegalMove(move) ? move : Move.NONE;
+    }
+    
+    /**
+     * Returns true if moving the piece on {@code from} to {@code to} is a pawn reaching
+     * the last rank.
+     */
+    private boolean isPromotionSquare(int from, int to) {
+        int row = to / BOARD_SIZE;
+        return Piece.fromIndex(mailbox[from]).getType() == PieceType.PAWN
+            && (row == BLACK_BACK_RANK || row == WHITE_BACK_RANK);
+    }
+    
+    /**
+     * Generate every legal move of the side to move.
+     * 
+     * @param moves the list to fill; it is cleared first (not null)
+     */
+    public void generateLegalMoves(MoveList moves) {
+        generateLegalMoves(sideToMove, moves);
+    }
+    
+    /**
+     * Generate every legal move of the given color in the current position.
+     * 
+     * <p>Promotions are generated once for each of queen, rook, bishop and knight.</p>
+     * 
+     * @param color the side to generate moves for (not null)
+     * @param moves the list to fill; it is cleared first (not null)
+     */
+    public void generateLegalMoves(PieceColor color, MoveList moves) {
+        moves.clear();
+        moveGenerator.prepare(color);
+        moveGenerator.generateMoves(moves);
+    }
+    
+    /**
+     * Generate the legal captures (including en passant) and promotions of the side to
+     * move, the moves a quiescence search looks at. Promotions are generated to a queen
+     * only.
+     * 
+     * @param moves the list to fill; it is cleared first (not null)
+     */
+    public void generateLegalCaptures(MoveList moves) {
+        moves.clear();
+        moveGenerator.prepare(sideToMove);
+        moveGenerator.generateMoves(moves, true);
     }
     
     /**
      * Make a move on the board.
+     * 
+     * <p>The move is not validated. Special moves (castling, en passant, double pawn
+     * pushes) are recognised from the pieces involved; a pawn reaching the last rank is
+     * left as a pawn for the caller to promote.</p>
      */
     public void makeMove(Position from, Position to) {
-        Piece piece = getPiece(from);
+        makeMove(encodeMove(squareIndex(from), squareIndex(to), null));
+    }
+    
+    /**
+     * Encode a from/to pair as a {@link Move} in the current position, deriving the
+     * capture, castling, en passant and double-push flags from the pieces involved.
+     * 
+     * @param from the origin square index (must hold a piece)
+     * @param to the destination square index
+     * @param promotion the promotion piece type, or null
+     * @return the encoded move
+     */
+    int encodeMove(int from, int to, PieceType promotion) {
+        PieceType type = Piece.fromIndex(mailbox[from]).getType();
+        int colDiff = Math.abs(to % BOARD_SIZE - from % BOARD_SIZE);
+        int rowDiff = Math.abs(to / BOARD_SIZE - from / BOARD_SIZE);
+        int flags = mailbox[to] != EMPTY ? Move.CAPTURE : 0;
+        if (type == PieceType.KING && colDiff == 2) {
+            flags |= Move.CASTLING;
+        } else if (type == PieceType.PAWN) {
+            if (to == enPassantTarget && colDiff == 1) {
+                flags |= Move.EN_PASSANT | Move.CAPTURE;
+            } else if (rowDiff == 2) {
+                flags |= Move.DOUBLE_PUSH;
+            }
+        }
+        return Move.of(from, to, flags, promotion);
+    }
+    
+    /**
+     * Make an encoded move and push the information needed to take it back onto the
+     * undo stack.
+     * 
+     * <p>The move is trusted to be legal in the current position (for example, one
+     * produced by the move generator); it is not validated here. No objects are
+     * allocated on this path: the undo stack doubles as the move history.</p>
+     * 
+     * @param move the encoded {@link Move}
+     * @throws IllegalStateException if the undo stack is full
+     */
+    public void makeMove(int move) {
+        if (undoDepth == MAX_UNDO_DEPTH) {
+            throw new IllegalStateException("Undo stack is full (" + MAX_UNDO_DEPTH + " moves)");
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int capturedSquare = Move.isEnPassant(move) ? enPassantCaptureSquare(to) : to;
+        
+        undoMoves[undoDepth] = move;
+        undoCaptured[undoDepth] = mailbox[capturedSquare];
+        undoCastlingRights[undoDepth] = castlingRights;
+        undoEnPassant[undoDepth] = enPassantTarget;
+        undoHash[undoDepth] = hash;
+        undoHalfmoveClock[undoDepth] = halfmoveClock;
+        undoDepth++;
         lastMoveNumber++;
+        boolean pawnMove = mailbox[from] == pieceIndex(PieceType.PAWN, sideToMove);
+        halfmoveClock = pawnMove || Move.isCapture(move) ? 0 : halfmoveClock + 1;
         
-        // Handle castling
-        if (piece.getType() == PieceType.KING && Math.abs(to.getColumn() - from.getColumn()) == 2) {
-            performCastling(from, to, piece.getColor());
-            return;
-        }
+        // Pieces update the key as they move; the rights, target and side are swapped here
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantTarget) ^ Zobrist.blackToMove();
         
-        // Handle en passant capture
-        if (piece.getType() == PieceType.PAWN && enPassantTarget != null && to.equals(enPassantTarget)) {
-            performEnPassantCapture(from, to, piece.getColor());
-            return;
+        if (Move.isCastling(move)) {
+            performCastling(from, to);
+        } else if (Move.isEnPassant(move)) {
+            performEnPassantCapture(from, to);
+        } else {
+            int piece = mailbox[from];
+            removePiece(to);
+            removePiece(from);
+            PieceType promotion = Move.promotion(move);
+            putPiece(to, promotion == null ? piece : pieceIndex(promotion, sideToMove));
+            
+            // A double pawn push leaves the skipped square as the en passant target
+            enPassantTarget = Move.isDoublePush(move) ? (from + to) / 2 : -1;
         }
         
-        // Check if pawn moves two squares (potential en passant setup)
-        Position newEnPassantTarget = null;
-        if (piece.getType() == PieceType.PAWN && Math.abs(to.getRow() - from.getRow()) == 2) {
-            int direction = piece.getColor() == PieceColor.WHITE ? -1 : 1;
-            newEnPassantTarget = new Position(from.getRow() + direction, from.getColumn());
+        // Moving from or capturing on a king or rook home square clears castling rights
+        castlingRights &= CASTLING_RIGHTS_MASK[from] & CASTLING_RIGHTS_MASK[to];
+        sideToMove = sideToMove.opposite();
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantTarget);
+    }
+    
+    /**
+     * Take back the most recent move made with {@link #makeMove(int)} (or
+     * {@link #makeMove(Position, Position)}), restoring captured pieces, castling rights,
+     * the en passant target, the side to move and the Zobrist key.
+     * 
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to take back");
         }
+        undoDepth--;
+        int move = undoMoves[undoDepth];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        sideToMove = sideToMove.opposite();
+        lastMoveNumber--;
         
-        // Regular move
-        setPiece(to, piece);
-        setPiece(from, null);
-        
-        // Update castling rights
-        updateCastlingRights(piece, from);
+        int piece = Move.isPromotion(move) ? pieceIndex(PieceType.PAWN, sideToMove) : mailbox[to];
+        removePiece(to);
+        putPiece(from, piece);
         
-        // Update en passant target
-        enPassantTarget = newEnPassantTarget;
+        if (Move.isCastling(move)) {
+            boolean isKingSide = to > from;
+            int rookFrom = isKingSide ? from + 3 : from - 4;
+            int rookTo = isKingSide ? from + 1 : from - 1;
+            int rook = mailbox[rookTo];
+            removePiece(rookTo);
+            putPiece(rookFrom, rook);
+        }
         
-        // Add to move history
-        String moveNotation = positionToNotation(from) + positionToNotation(to);
-        moveHistory.add(moveNotation);
+        int captured = undoCaptured[undoDepth];
+        if (captured != EMPTY) {
+            putPiece(Move.isEnPassant(move) ? enPassantCaptureSquare(to) : to, captured);
+        }
+        castlingRights = undoCastlingRights[undoDepth];
+        enPassantTarget = undoEnPassant[undoDepth];
+        hash = undoHash[undoDepth];
+        halfmoveClock = undoHalfmoveClock[undoDepth];
     }
     
     /**
-     * Check if a piece move is valid according to chess rules.
+     * Pass the turn to the opponent without moving a piece (a "null move"), as used by
+     * null-move pruning in a search. The en passant target is cleared. Positions before
+     * a null move are not counted as repetitions, so the halfmove clock restarts.
+     * 
+     * <p>The side to move must not be in check. Take the null move back with
+     * {@link #unmakeNullMove()}.</p>
+     * 
+     * @throws IllegalStateException if the undo stack is full
      */
-    private boolean isValidPieceMove(Piece piece, Position from, Position to) {
-        int rowDiff = Math.abs(to.getRow() - from.getRow());
-        int colDiff = Math.abs(to.getColumn() - from.getColumn());
+    public void makeNullMove() {
+        if (undoDepth == MAX_UNDO_DEPTH) {
+            throw new IllegalStateException("Undo stack is full (" + MAX_UNDO_DEPTH + " moves)");
+        }
+        undoMoves[undoDepth] = Move.NONE;
+        undoCaptured[undoDepth] = EMPTY;
+        undoCastlingRights[undoDepth] = castlingRights;
+        undoEnPassant[undoDepth] = enPassantTarget;
+        undoHash[undoDepth] = hash;
+        undoHalfmoveClock[undoDepth] = halfmoveClock;
+        undoDepth++;
         
-        switch (piece.getType()) {
-            case PAWN:
-                return isValidPawnMove(piece, from, to, rowDiff, colDiff);
-            case ROOK:
-                return isValidRookMove(from, to, rowDiff, colDiff);
-            case KNIGHT:
-                return isValidKnightMove(rowDiff, colDiff);
-            case BISHOP:
-                return isValidBishopMove(from, to, rowDiff, colDiff);
-            case QUEEN:
-                return isValidQueenMove(from, to, rowDiff, colDiff);
-            case KING:
-                return isValidKingMove(piece, from, to, rowDiff, colDiff);
-            default:
-                return false;
+        hash ^= Zobrist.enPassant(enPassantTarget) ^ Zobrist.blackToMove();
+        enPassantTarget = -1;
+        halfmoveClock = 0;
+        sideToMove = sideToMove.opposite();
+    }
+    
+    /**
+     * Take back a null move made with {@link #makeNullMove()}.
+     * 
+     * @throws IllegalStateException if the most recent move is not a null move
+     */
+    public void unmakeNullMove() {
+        if (undoDepth == 0 || undoMoves[undoDepth - 1] != Move.NONE) {
+            throw new IllegalStateException("No null move to take back");
         }
+        undoDepth--;
+        sideToMove = sideToMove.opposite();
+        enPassantTarget = undoEnPassant[undoDepth];
+        hash = undoHash[undoDepth];
+        halfmoveClock = undoHalfmoveClock[undoDepth];
     }
     
-    private boolean isValidPawnMove(Piece piece, Position from, Position to, int rowDiff, int colDiff) {
-        int direction = piece.getColor() == PieceColor.WHITE ? -1 : 1;
-        int startRow = piece.getColor() == PieceColor.WHITE ? 6 : 1;
-        
-        // Forward move
-        if (colDiff == 0 && getPiece(to) == null) {
-            if (from.getRow() + direction == to.getRow()) {
-                return true;
-            }
-            // Two squares from starting position
-            if (from.getRow() == startRow && from.getRow() + 2 * direction == to.getRow()) {
-                return true;
+    /**
+     * Returns the 64-bit Zobrist key of the current position. Positions with the same
+     * pieces, castling rights, en passant target and side to move have the same key.
+     * 
+     * @return the position key
+     */
+    public long getHash() {
+        return hash;
+    }
+    
+    /**
+     * Returns the Zobrist key of the pawns alone. Positions with the same pawns on the same
+     * squares have the same pawn key, whatever the other pieces.
+     * 
+     * @return the pawn key
+     */
+    public long getPawnHash() {
+        return pawnHash;
+    }
+    
+    /**
+     * Compute the pawn key of the current position from scratch, to verify the
+     * incremental one.
+     * 
+     * @return the pawn key
+     */
+    long computePawnHash() {
+        long key = 0L;
+        for (int square = 0; square < mailbox.length; square++) {
+            if (mailbox[square] != EMPTY) {
+                key ^= Zobrist.pawn(mailbox[square], square);
             }
         }
-        
-        // Diagonal capture
-        if (colDiff == 1 && rowDiff == 1 && from.getRow() + direction == to.getRow()) {
-            // Regular capture
-            if (getPiece(to) != null) {
-                return true;
+        return key;
+    }
+    
+    /**
+     * Compute the Zobrist key of the current position from scratch. Used after a position
+     * is set up wholesale, and to verify the incremental key.
+     * 
+     * @return the position key
+     */
+    long computeHash() {
+        long key = 0L;
+        for (int square = 0; square < mailbox.length; square++) {
+            if (mailbox[square] != EMPTY) {
+                key ^= Zobrist.piece(mailbox[square], square);
             }
-            
-            // En passant capture
-            if (enPassantTarget != null && to.equals(enPassantTarget)) {
+        }
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantTarget);
+        if (sideToMove == PieceColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        return key;
+    }
+    
+    /**
+     * Returns the number of half-moves since the last capture or pawn move.
+     * 
+     * @return the fifty-move rule counter
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+    
+    /**
+     * Check whether the current position already occurred earlier with the same side to
+     * move, among the moves on the undo stack. Only positions since the last capture or
+     * pawn move can repeat, so the scan stops there.
+     * 
+     * <p>This reports the first repetition, which is what a search treats as a draw;
+     * the formal draw claim needs the position a third time.</p>
+     * 
+     * @return true if the position is a repetition
+     */
+    public boolean isRepetition() {
+        int oldest = Math.max(0, undoDepth - halfmoveClock);
+        // undoHash[i] is the key before move i; the same side was to move 4, 6, ... plies ago
+        for (int i = undoDepth - 4; i >= oldest; i -= 2) {
+            if (undoHash[i] == hash) {
                 return true;
             }
         }
-        
         return false;
     }
     
-    private boolean isValidRookMove(Position from, Position to, int rowDiff, int colDiff) {
-        if (!((rowDiff == 0 && colDiff > 0) || (colDiff == 0 && rowDiff > 0))) {
-            return false;
-        }
-        return isPathClear(from, to);
+    /**
+     * Check whether the position is drawn by the fifty-move rule or by repetition.
+     * Checkmate and stalemate are not considered.
+     * 
+     * @return true if the position is a draw
+     */
+    public boolean isDraw() {
+        return halfmoveClock >= 100 || isRepetition();
     }
     
-    private boolean isValidKnightMove(int rowDiff, int colDiff) {
-        return (rowDiff == 2 && colDiff == 1) || (rowDiff == 1 && colDiff == 2);
+    /**
+     * Returns the material and piece-square score of the position as a packed
+     * {@link Score}, summed over all pieces by {@link PieceSquareTables} and kept current
+     * by every move.
+     * 
+     * @return the packed midgame and endgame score from White's point of view
+     */
+    public int getPsqScore() {
+        return psqScore;
     }
     
-    private boolean isValidBishopMove(Position from, Position to, int rowDiff, int colDiff) {
-        if (!(rowDiff == colDiff && rowDiff > 0)) {
-            return false;
-        }
-        return isPathClear(from, to);
+    /**
+     * Returns the midgame half of {@link #getPsqScore()}.
+     * 
+     * @return the score in centipawns from White's point of view
+     */
+    public int getMidgameScore() {
+        return Score.midgame(psqScore);
     }
     
-    private boolean isValidQueenMove(Position from, Position to, int rowDiff, int colDiff) {
-        // Path clearance is handled in the respective functions
-        return isValidRookMove(from, to, rowDiff, colDiff) || 
-               isValidBishopMove(from, to, rowDiff, colDiff);
+    /**
+     * Returns the endgame half of {@link #getPsqScore()}.
+     * 
+     * @return the score in centipawns from White's point of view
+     */
+    public int getEndgameScore() {
+        return Score.endgame(psqScore);
     }
     
-    private boolean isValidKingMove(Piece piece, Position from, Position to, int rowDiff, int colDiff) {
-        // Regular king move (one square in any direction)
-        if ((rowDiff <= 1 && colDiff <= 1) && (rowDiff > 0 || colDiff > 0)) {
-            return true;
-        }
-        
-        // Castling move (king moves two squares horizontally)
-        if (rowDiff == 0 && colDiff == 2) {
-            return isValidCastling(piece.getColor(), from, to);
-        }
-        
-        return false;
+    /**
+     * Returns the game phase: the {@link PieceSquareTables#phaseWeight(int)} of every
+     * piece on the board, kept current by every move. Promotions can push it past
+     * {@link PieceSquareTables#MAX_PHASE}.
+     * 
+     * @return the phase, from {@link PieceSquareTables#MAX_PHASE} at the start down to 0
+     *         with only kings and pawns
+     */
+    public int getPhase() {
+        return phase;
     }
     
     /**
-     * Check if castling move is valid.
+     * Returns the number of moves on the undo stack that {@link #unmakeMove()} can take back.
+     * 
+     * @return the undo stack depth
      */
-    private boolean isValidCastling(PieceColor color, Position from, Position to) {
-        boolean isWhite = color == PieceColor.WHITE;
-        int row = isWhite ? 7 : 0;
-        
-        // King must be on starting square
-        if (from.getRow() != row || from.getColumn() != 4) {
-            return false;
-        }
-        
-        // King must not have moved
-        if (isWhite && whiteKingMoved || !isWhite && blackKingMoved) {
-            return false;
-        }
-        
-        boolean isKingSide = to.getColumn() == KINGSIDE_KING_TARGET;
-        boolean isQueenSide = to.getColumn() == QUEENSIDE_KING_TARGET;
-        
-        if (!isKingSide && !isQueenSide) {
-            return false; // Invalid castling target
-        }
-        
-        // Check rook position and movement
-        if (isKingSide) {
-            if (isWhite && whiteKingsideRookMoved || !isWhite && blackKingsideRookMoved) {
-                return false;
-            }
-            // Check rook is in place
-            Piece rook = getPiece(new Position(row, 7));
-            if (rook == null || rook.getType() != PieceType.ROOK || rook.getColor() != color) {
-                return false;
-            }
-            // Path must be clear (f and g files)
-            if (getPiece(new Position(row, 5)) != null || getPiece(new Position(row, 6)) != null) {
-                return false;
-            }
-        } else {
-            if (isWhite && whiteQueensideRookMoved || !isWhite && blackQueensideRookMoved) {
-                return false;
-            }
-            // Check rook is in place
-            Piece rook = getPiece(new Position(row, 0));
-            if (rook == null || rook.getType() != PieceType.ROOK || rook.getColor() != color) {
-                return false;
-            }
-            // Path must be clear (b, c, and d files)
-            if (getPiece(new Position(row, 1)) != null || 
-                getPiece(new Position(row, 2)) != null || 
-                getPiece(new Position(row, 3)) != null) {
-                return false;
-            }
-        }
-        
-        // King must not be in check
-        if (isInCheck(color)) {
-            return false;
-        }
-        
-        // King must not pass through or end up in check
-        Position intermediate = new Position(row, isKingSide ? 5 : 3);
-        
-        // Simulate intermediate position
-        Piece king = getPiece(from);
-        setPiece(intermediate, king);
-        setPiece(from, null);
-        boolean passesThoughCheck = isInCheck(color);
-        setPiece(from, king);
-        setPiece(intermediate, null);
-        
-        if (passesThoughCheck) {
-            return false;
-        }
-        
-        // Simulate final position
-        setPiece(to, king);
-        setPiece(from, null);
-        boolean endsInCheck = isInCheck(color);
-        setPiece(from, king);
-        setPiece(to, null);
-        
-        return !endsInCheck;
+    public int getUndoDepth() {
+        return undoDepth;
     }
-
+    
     /**
-     * Check that all squares between from (exclusive) and to (exclusive) are empty.
+     * Returns the most recent move on the undo stack.
+     * 
+     * @return the encoded move, or {@link Move#NONE} if no move has been made
      */
-    private boolean isPathClear(Position from, Position to) {
-        int rowStep = Integer.compare(to.getRow(), from.getRow());
-        int colStep = Integer.compare(to.getColumn(), from.getColumn());
-        int row = from.getRow() + rowStep;
-        int col = from.getColumn() + colStep;
-        while (row != to.getRow() || col != to.getColumn()) {
-            if (squares[row][col] != null) {
-                return false;
-            }
-            row += rowStep;
-            col += colStep;
-        }
-        return true;
+    public int getLastMove() {
+        return undoDepth > 0 ? undoMoves[undoDepth - 1] : Move.NONE;
     }
-
+    
+    /**
+     * Returns the color whose turn it is.
+     * 
+     * @return the side to move
+     */
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+    
+    /**
+     * Returns the square of the pawn removed by an en passant capture landing on {@code to}.
+     */
+    private static int enPassantCaptureSquare(int to) {
+        // The target square is on row 2 for white captures and row 5 for black captures;
+        // the captured pawn sits one row further from the capturing side
+        return to / BOARD_SIZE == 2 ? to + BOARD_SIZE : to - BOARD_SIZE;
+    }
+    
     /**
      * Determine if the given color's king is currently in check.
      */
     public boolean isInCheck(PieceColor color) {
-        Position kingPos = findKing(color);
-        if (kingPos == null) return false;
-        return isSquareAttacked(kingPos, opposite(color));
+        int kingSquare = kingSquares[color.ordinal()];
+        if (kingSquare < 0) return false;
+        return isSquareAttacked(kingSquare, opposite(color));
     }
 
     /**
      * Determine if the given color has any legal move available.
      */
     public boolean hasAnyLegalMove(PieceColor color) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece piece = squares[row][col];
-                if (piece == null || piece.getColor() != color) continue;
-                Position from = new Position(row, col);
-                for (int r2 = 0; r2 < BOARD_SIZE; r2++) {
-                    for (int c2 = 0; c2 < BOARD_SIZE; c2++) {
-                        Position to = new Position(r2, c2);
-                        if (from.getRow() == to.getRow() && from.getColumn() == to.getColumn()) continue;
-                        if (isValidMove(from, to, color)) {
-                            return true;
-                        }
-                    }
-                }
+        moveGenerator.prepare(color);
+        long pieces = colorOccupancy[color.ordinal()];
+        while (pieces != 0) {
+            int fromSquare = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            if (moveGenerator.legalTargets(fromSquare) != 0) {
+                return true;
             }
         }
         return false;
     }
 
-    private Position findKing(PieceColor color) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece p = squares[row][col];
-                if (p != null && p.getType() == PieceType.KING && p.getColor() == color) {
-                    return new Position(row, col);
-                }
-            }
+    private boolean isSquareAttacked(int square, PieceColor byColor) {
+        // Leapers: one table lookup each against the attacker's pieces
+        if ((Attacks.pawnAttacks(opposite(byColor), square)
+                & pieceBitboards[pieceIndex(PieceType.PAWN, byColor)]) != 0) {
+            return true;
         }
-        return null;
-    }
-
-    private boolean isSquareAttacked(Position square, PieceColor byColor) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece attacker = squares[row][col];
-                if (attacker == null || attacker.getColor() != byColor) continue;
-                Position from = new Position(row, col);
-                if (attacker.getType() == PieceType.PAWN) {
-                    int dir = byColor == PieceColor.WHITE ? -1 : 1;
-                    if (square.getRow() == row + dir && Math.abs(square.getColumn() - col) == 1) {
-                        return true;
-                    }
-                } else if (attacker.getType() == PieceType.KNIGHT) {
-                    int dr = Math.abs(square.getRow() - row);
-                    int dc = Math.abs(square.getColumn() - col);
-                    if ((dr == 2 && dc == 1) || (dr == 1 && dc == 2)) {
-                        return true;
-                    }
-                } else if (attacker.getType() == PieceType.KING) {
-                    int dr = Math.abs(square.getRow() - row);
-                    int dc = Math.abs(square.getColumn() - col);
-                    if (dr <= 1 && dc <= 1 && (dr > 0 || dc > 0)) {
-                        return true;
-                    }
-                } else {
-                    // Sliding pieces: rook, bishop, queen
-                    if (canSlideTo(from, square, attacker.getType())) {
-                        return true;
-                    }
-                }
-            }
+        if ((Attacks.knightAttacks(square) & pieceBitboards[pieceIndex(PieceType.KNIGHT, byColor)]) != 0) {
+            return true;
         }
-        return false;
+        if ((Attacks.kingAttacks(square) & pieceBitboards[pieceIndex(PieceType.KING, byColor)]) != 0) {
+            return true;
+        }
+        
+        // Sliding pieces: one magic lookup per ray type
+        long queens = pieceBitboards[pieceIndex(PieceType.QUEEN, byColor)];
+        long rooks = pieceBitboards[pieceIndex(PieceType.ROOK, byColor)] | queens;
+        long bishops = pieceBitboards[pieceIndex(PieceType.BISHOP, byColor)] | queens;
+        return (MagicBitboards.rookAttacks(square, occupied) & rooks) != 0
+            || (MagicBitboards.bishopAttacks(square, occupied) & bishops) != 0;
     }
 
-    private boolean canSlideTo(Position from, Position to, PieceType type) {
-        int rowDiff = Math.abs(to.getRow() - from.getRow());
-        int colDiff = Math.abs(to.getColumn() - from.getColumn());
-        boolean pattern;
-        if (type == PieceType.ROOK) {
-            pattern = (rowDiff == 0 && colDiff > 0) || (colDiff == 0 && rowDiff > 0);
-        } else if (type == PieceType.BISHOP) {
-            pattern = rowDiff == colDiff && rowDiff > 0;
-        } else if (type == PieceType.QUEEN) {
-            pattern = (rowDiff == 0 || colDiff == 0 || rowDiff == colDiff) && (rowDiff > 0 || colDiff > 0);
-        } else {
-            return false;
+    /**
+     * Compute every piece of either color that attacks a square, treating the given
+     * occupancy as the set of blockers for sliding pieces.
+     * 
+     * @param square the target square index
+     * @param occupancy the blocker bitboard to use
+     * @return bitboard of attacking pieces of both colors
+     */
+    public long attackersTo(int square, long occupancy) {
+        long queens = pieceBitboards[pieceIndex(PieceType.QUEEN, PieceColor.WHITE)]
+                    | pieceBitboards[pieceIndex(PieceType.QUEEN, PieceColor.BLACK)];
+        long rooks = pieceBitboards[pieceIndex(PieceType.ROOK, PieceColor.WHITE)]
+                   | pieceBitboards[pieceIndex(PieceType.ROOK, PieceColor.BLACK)] | queens;
+        long bishops = pieceBitboards[pieceIndex(PieceType.BISHOP, PieceColor.WHITE)]
+                     | pieceBitboards[pieceIndex(PieceType.BISHOP, PieceColor.BLACK)] | queens;
+        long knights = pieceBitboards[pieceIndex(PieceType.KNIGHT, PieceColor.WHITE)]
+                     | pieceBitboards[pieceIndex(PieceType.KNIGHT, PieceColor.BLACK)];
+        long kings = pieceBitboards[pieceIndex(PieceType.KING, PieceColor.WHITE)]
+                   | pieceBitboards[pieceIndex(PieceType.KING, PieceColor.BLACK)];
+        return (Attacks.pawnAttacks(PieceColor.BLACK, square) & pieceBitboards[pieceIndex(PieceType.PAWN, PieceColor.WHITE)])
+             | (Attacks.pawnAttacks(PieceColor.WHITE, square) & pieceBitboards[pieceIndex(PieceType.PAWN, PieceColor.BLACK)])
+             | (Attacks.knightAttacks(square) & knights)
+             | (Attacks.kingAttacks(square) & kings)
+             | (MagicBitboards.rookAttacks(square, occupancy) & rooks)
+             | (MagicBitboards.bishopAttacks(square, occupancy) & bishops);
+    }
+    
+    /**
+     * Returns the piece on a square index, or null if it is empty.
+     * 
+     * @param square the square index (0-63)
+     * @return the piece, or null
+     */
+    public Piece pieceAt(int square) {
+        int piece = mailbox[square];
+        return piece == EMPTY ? null : Piece.fromIndex(piece);
+    }
+    
+    /**
+     * Returns the en passant target square index, or -1 if there is none.
+     */
+    int enPassantSquare() {
+        return enPassantTarget;
+    }
+    
+    /**
+     * Check whether a side still has the right to castle on the given wing.
+     */
+    boolean hasCastlingRight(PieceColor color, boolean kingside) {
+        return (castlingRights & castlingRight(color, kingside)) != 0;
+    }
+    
+    private static int castlingRight(PieceColor color, boolean kingside) {
+        if (color == PieceColor.WHITE) {
+            return kingside ? CASTLE_WHITE_KINGSIDE : CASTLE_WHITE_QUEENSIDE;
         }
-        if (!pattern) return false;
-        return isPathClear(from, to);
+        return kingside ? CASTLE_BLACK_KINGSIDE : CASTLE_BLACK_QUEENSIDE;
     }
 
     private PieceColor opposite(PieceColor color) {
@@ -608,95 +1029,38 @@ public class Board {
     /**
      * Perform a castling move.
      */
-    private void performCastling(Position kingFrom, Position kingTo, PieceColor color) {
+    private void performCastling(int kingFrom, int kingTo) {
         // Move the king
-        Piece king = getPiece(kingFrom);
-        setPiece(kingTo, king);
-        setPiece(kingFrom, null);
+        int king = mailbox[kingFrom];
+        removePiece(kingFrom);
+        putPiece(kingTo, king);
         
         // Move the rook
-        boolean isKingSide = kingTo.getColumn() > kingFrom.getColumn();
-        int rookFromCol = isKingSide ? 7 : 0;
-        int rookToCol = isKingSide ? 5 : 3;
-        int row = color == PieceColor.WHITE ? 7 : 0;
-        
-        Position rookFrom = new Position(row, rookFromCol);
-        Position rookTo = new Position(row, rookToCol);
-        
-        Piece rook = getPiece(rookFrom);
-        setPiece(rookTo, rook);
-        setPiece(rookFrom, null);
-        
-        // Update castling rights
-        if (color == PieceColor.WHITE) {
-            whiteKingMoved = true;
-            whiteKingsideRookMoved = true;
-            whiteQueensideRookMoved = true;
-        } else {
-            blackKingMoved = true;
-            blackKingsideRookMoved = true;
-            blackQueensideRookMoved = true;
-        }
-        
-        // Add to move history
-        String castlingNotation = isKingSide ? "O-O" : "O-O-O";
-        moveHistory.add(castlingNotation);
+        boolean isKingSide = kingTo > kingFrom;
+        int rookFrom = isKingSide ? kingFrom + 3 : kingFrom - 4;
+        int rookTo = isKingSide ? kingFrom + 1 : kingFrom - 1;
+        int rook = mailbox[rookFrom];
+        removePiece(rookFrom);
+        putPiece(rookTo, rook);
         
         // Clear en passant
-        enPassantTarget = null;
+        enPassantTarget = -1;
     }
     
     /**
      * Perform an en passant capture.
      */
-    private void performEnPassantCapture(Position from, Position to, PieceColor color) {
+    private void performEnPassantCapture(int from, int to) {
         // Move the pawn to the en passant target square
-        Piece pawn = getPiece(from);
-        setPiece(to, pawn);
-        setPiece(from, null);
+        int pawn = mailbox[from];
+        removePiece(from);
+        putPiece(to, pawn);
         
         // Remove the captured pawn
-        int capturedPawnRow = color == PieceColor.WHITE ? to.getRow() + 1 : to.getRow() - 1;
-        Position capturedPawnPos = new Position(capturedPawnRow, to.getColumn());
-        setPiece(capturedPawnPos, null);
-        
-        // Add to move history
-        String moveNotation = positionToNotation(from) + positionToNotation(to) + " e.p.";
-        moveHistory.add(moveNotation);
+        removePiece(enPassantCaptureSquare(to));
         
         // Clear en passant target
-        enPassantTarget = null;
-    }
-    
-    /**
-     * Update castling rights based on piece movement.
-     */
-    private void updateCastlingRights(Piece piece, Position from) {
-        if (piece.getType() == PieceType.KING) {
-            if (piece.getColor() == PieceColor.WHITE) {
-                whiteKingMoved = true;
-            } else {
-                blackKingMoved = true;
-            }
-        } else if (piece.getType() == PieceType.ROOK) {
-            if (piece.getColor() == PieceColor.WHITE) {
-                if (from.getRow() == 7) {
-                    if (from.getColumn() == 0) {
-                        whiteQueensideRookMoved = true;
-                    } else if (from.getColumn() == 7) {
-                        whiteKingsideRookMoved = true;
-                    }
-                }
-            } else {
-                if (from.getRow() == 0) {
-                    if (from.getColumn() == 0) {
-                        blackQueensideRookMoved = true;
-                    } else if (from.getColumn() == 7) {
-                        blackKingsideRookMoved = true;
-                    }
-                }
-            }
-        }
+        enPassantTarget = -1;
     }
     
     /**
@@ -708,42 +1072,49 @@ public class Board {
         return "" + file + rank;
     }
     
+    /**
+     * Convert a square index to chess notation (e.g., 0 -> "a8").
+     */
+    private String squareToNotation(int square) {
+        char file = (char) ('a' + square % BOARD_SIZE);
+        int rank = BOARD_SIZE - square / BOARD_SIZE;
+        return "" + file + rank;
+    }
+    
     /**
      * Get all valid moves for a specific player color.
+     * 
+     * <p>Moves are generated as encoded ints and only formatted here for display;
+     * promotions are listed once per square pair.</p>
      */
     public List<String> getAllValidMoves(PieceColor playerColor) {
-        List<String> validMoves = new ArrayList<>();
+        MoveList moves = new MoveList();
+        generateLegalMoves(playerColor, moves);
         
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Position from = new Position(row, col);
-                Piece piece = getPiece(from);
-                
-                if (piece != null && piece.getColor() == playerColor) {
-                    // Check all possible destination squares
-                    for (int toRow = 0; toRow < BOARD_SIZE; toRow++) {
-                        for (int toCol = 0; toCol < BOARD_SIZE; toCol++) {
-                            Position to = new Position(toRow, toCol);
-                            
-                            if (isValidMove(from, to, playerColor)) {
-                                String moveNotation = positionToNotation(from) + positionToNotation(to);
-                                
-                                // Add special notations
-                                Piece targetPiece = getPiece(to);
-                                if (targetPiece != null) {
-                                    moveNotation += " (capture " + targetPiece.getType().toString().toLowerCase() + ")";
-                                } else if (piece.getType() == PieceType.KING && Math.abs(toCol - col) == 2) {
-                                    moveNotation += (toCol > col) ? " (O-O)" : " (O-O-O)";
-                                } else if (piece.getType() == PieceType.PAWN && enPassantTarget != null && to.equals(enPassantTarget)) {
-                                    moveNotation += " (en passant)";
-                                }
-                                
-                                validMoves.add(moveNotation);
-                            }
-                        }
-                    }
-                }
+        List<String> validMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            PieceType promotion = Move.promotion(move);
+            if (promotion != null && promotion != PieceType.QUEEN) {
+                continue;
+            }
+            int from = Move.from(move);
+            int to = Move.to(move);
+            String moveNotation = squareToNotation(from) + squareToNotation(to);
+            
+            // Add special notations
+            if (Move.isEnPassant(move)) {
+                moveNotation += " (en passant)";
+            } else if (Move.isCapture(move)) {
+                moveNotation += " (capture " + Piece.fromIndex(mailbox[to]).getType().toString().toLowerCase() + ")";
+            } else if (Move.isCastling(move)) {
+                moveNotation += (to > from) ? " (O-O)" : " (O-O-O)";
+            }
+            if (promotion != null) {
+                moveNotation += " (promotion)";
             }
+            
+            validMoves.add(moveNotation);
         }
         
         return validMoves;
@@ -751,9 +1122,18 @@ public class Board {
     
     /**
      * Get move history as a formatted string.
+     * 
+     * <p>Moves are stored encoded; the notation is built on each call.</p>
      */
     public List<String> getMoveHistory() {
-        return new ArrayList<>(moveHistory);
+        List<String> history = new ArrayList<>(loadedHistory.length + undoDepth);
+        for (int move : loadedHistory) {
+            history.add(Move.toHistoryNotation(move));
+        }
+        for (int i = 0; i < undoDepth; i++) {
+            history.add(Move.toHistoryNotation(undoMoves[i]));
+        }
+        return history;
     }
     
     /**
@@ -764,27 +1144,30 @@ public class Board {
         
         // Save board state
         sb.append("BOARD:\n");
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null) {
-                    sb.append(positionToNotation(new Position(row, col)))
-                      .append(":").append(piece.getColor().name()).append("_").append(piece.getType().name())
-                      .append(" ");
-                }
+        for (int square = 0; square < BOARD_SIZE * BOARD_SIZE; square++) {
+            if (mailbox[square] != EMPTY) {
+                Piece piece = Piece.fromIndex(mailbox[square]);
+                sb.append(positionToNotation(squareToPosition(square)))
+                  .append(":").append(piece.getColor().name()).append("_").append(piece.getType().name())
+                  .append(" ");
             }
         }
         sb.append("\n");
         
         // Save castling rights
-        sb.append("CASTLING:").append(whiteKingMoved).append(",").append(blackKingMoved)
-          .append(",").append(whiteKingsideRookMoved).append(",").append(whiteQueensideRookMoved)
-          .append(",").append(blackKingsideRookMoved).append(",").append(blackQueensideRookMoved).append("\n");
+        // (stored as the historical "has moved" flags: king, king, rook K, rook Q, rook K, rook Q)
+        sb.append("CASTLING:")
+          .append((castlingRights & (CASTLE_WHITE_KINGSIDE | CASTLE_WHITE_QUEENSIDE)) == 0).append(",")
+          .append((castlingRights & (CASTLE_BLACK_KINGSIDE | CASTLE_BLACK_QUEENSIDE)) == 0).append(",")
+          .append((castlingRights & CASTLE_WHITE_KINGSIDE) == 0).append(",")
+          .append((castlingRights & CASTLE_WHITE_QUEENSIDE) == 0).append(",")
+          .append((castlingRights & CASTLE_BLACK_KINGSIDE) == 0).append(",")
+          .append((castlingRights & CASTLE_BLACK_QUEENSIDE) == 0).append("\n");
         
         // Save en passant target
         sb.append("ENPASSANT:");
-        if (enPassantTarget != null) {
-            sb.append(positionToNotation(enPassantTarget));
+        if (enPassantTarget >= 0) {
+            sb.append(squareToNotation(enPassantTarget));
         } else {
             sb.append("none");
         }
@@ -792,7 +1175,7 @@ public class Board {
         
         // Save move history
         sb.append("MOVES:");
-        for (String move : moveHistory) {
+        for (String move : getMoveHistory()) {
             sb.append(move).append(" ");
         }
         sb.append("\n");
@@ -810,12 +1193,12 @@ public class Board {
         try {
             String[] lines = gameState.split("\n");
             
-            // Clear current board
-            for (int row = 0; row < BOARD_SIZE; row++) {
-                for (int col = 0; col < BOARD_SIZE; col++) {
-                    squares[row][col] = null;
-                }
-            }
+            // Clear current board; loaded moves cannot be taken back
+            clearBoard();
+            undoDepth = 0;
+            halfmoveClock = 0;
+            PieceColor loadedSideToMove = null;
+            String[] loadedMoves = new String[0];
             
             // Load board state
             boolean foundBoard = false;
@@ -864,48 +1247,189 @@ public class Board {
                                         break;
                                 }
                                 
-                                setPiece(pos, new Piece(type, color));
+                                setPiece(pos, Piece.of(type, color));
                             }
                         }
                     }
-                    break; // Found and processed board data, exit loop
+                } else if (line.startsWith("CURRENT:")) {
+                    loadedSideToMove = PieceColor.fromString(line.substring(8).trim());
                 } else if (line.startsWith("CASTLING:")) {
                     String[] castlingData = line.substring(9).split(",");
-                    whiteKingMoved = Boolean.parseBoolean(castlingData[0]);
-                    blackKingMoved = Boolean.parseBoolean(castlingData[1]);
-                    whiteKingsideRookMoved = Boolean.parseBoolean(castlingData[2]);
-                    whiteQueensideRookMoved = Boolean.parseBoolean(castlingData[3]);
-                    blackKingsideRookMoved = Boolean.parseBoolean(castlingData[4]);
-                    blackQueensideRookMoved = Boolean.parseBoolean(castlingData[5]);
+                    boolean whiteKingMoved = Boolean.parseBoolean(castlingData[0]);
+                    boolean blackKingMoved = Boolean.parseBoolean(castlingData[1]);
+                    castlingRights = 0;
+                    if (!whiteKingMoved && !Boolean.parseBoolean(castlingData[2])) castlingRights |= CASTLE_WHITE_KINGSIDE;
+                    if (!whiteKingMoved && !Boolean.parseBoolean(castlingData[3])) castlingRights |= CASTLE_WHITE_QUEENSIDE;
+                    if (!blackKingMoved && !Boolean.parseBoolean(castlingData[4])) castlingRights |= CASTLE_BLACK_KINGSIDE;
+                    if (!blackKingMoved && !Boolean.parseBoolean(castlingData[5])) castlingRights |= CASTLE_BLACK_QUEENSIDE;
                 } else if (line.startsWith("ENPASSANT:")) {
                     String enPassantData = line.substring(10);
                     if (!enPassantData.equals("none")) {
-                        enPassantTarget = notationToPosition(enPassantData);
+                        enPassantTarget = squareIndex(notationToPosition(enPassantData));
                     } else {
-                        enPassantTarget = null;
+                        enPassantTarget = -1;
                     }
                 } else if (line.startsWith("MOVES:")) {
                     String movesData = line.substring(6).trim();
-                    moveHistory.clear();
-                    if (!movesData.isEmpty()) {
-                        String[] moves = movesData.split(" ");
-                        for (String move : moves) {
-                            if (!move.trim().isEmpty()) {
-                                moveHistory.add(move);
-                            }
-                        }
-                    }
+                    loadedMoves = movesData.isEmpty() ? new String[0] : movesData.split("\\s+");
                 } else if (line.startsWith("MOVENUMBER:")) {
                     lastMoveNumber = Integer.parseInt(line.substring(11));
                 }
             }
             
+            // Saves from the game controller record whose turn it is; otherwise derive it
+            // from the number of half-moves played
+            if (loadedSideToMove != null) {
+                sideToMove = loadedSideToMove;
+            } else {
+                sideToMove = lastMoveNumber % 2 == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+            }
+            loadedHistory = parseMoveHistory(loadedMoves);
+            hash = computeHash();
+            
             return foundBoard;
         } catch (Exception e) {
             return false;
         }
     }
     
+    /**
+     * Encode saved move history tokens ("e2e4", "e7e8q", "O-O", "O-O-O", or "e5d6"
+     * followed by "e.p."). Castling squares are inferred from which side made each move,
+     * counting back from the side to move; capture flags are not recoverable and are left
+     * unset.
+     */
+    private int[] parseMoveHistory(String[] tokens) {
+        int plies = 0;
+        for (String token : tokens) {
+            if (isHistoryMoveToken(token)) {
+                plies++;
+            }
+        }
+        
+        int[] moves = new int[plies];
+        int count = 0;
+        for (String token : tokens) {
+            if (token.equals("e.p.")) {
+                if (count > 0) {
+                    int previous = moves[count - 1];
+                    moves[count - 1] = Move.of(Move.from(previous), Move.to(previous),
+                                               Move.EN_PASSANT | Move.CAPTURE);
+                }
+            } else if (token.startsWith("O-O")) {
+                // The last move was made by the side not to move, and colors alternate before it
+                PieceColor mover = (plies - 1 - count) % 2 == 0 ? sideToMove.opposite() : sideToMove;
+                int kingFrom = squareIndex(mover.isWhite() ? WHITE_BACK_RANK : BLACK_BACK_RANK, KING_START_COLUMN);
+                int kingTo = token.equals("O-O") ? kingFrom + 2 : kingFrom - 2;
+                moves[count++] = Move.of(kingFrom, kingTo, Move.CASTLING);
+            } else if (isHistoryMoveToken(token)) {
+                int from = squareIndex(notationToPosition(token.substring(0, 2)));
+                int to = squareIndex(notationToPosition(token.substring(2, 4)));
+                PieceType promotion = token.length() == 5
+                    ? PieceType.fromString(token.substring(4)) : null;
+                moves[count++] = Move.of(from, to, 0, promotion);
+            }
+        }
+        return moves;
+    }
+    
+    private static boolean isHistoryMoveToken(String token) {
+        if (token.equals("e.p.")) {
+            return false;
+        }
+        return token.equals("O-O") || token.equals("O-O-O") || token.length() == 4 || token.length() == 5;
+    }
+    
+    /**
+     * Set up a position from Forsyth-Edwards Notation, e.g.
+     * {@code "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"}.
+     * 
+     * <p>The piece placement, side to move, castling and en passant fields are required;
+     * the half-move clock and full-move number are optional. The undo stack and move history are cleared. The
+     * board is left unchanged if the FEN is rejected.</p>
+     * 
+     * @param fen the FEN string (not null)
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public void loadFen(String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN cannot be null");
+        }
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+        
+        // Parse everything before touching the board
+        int[] squares = new int[BOARD_SIZE * BOARD_SIZE];
+        Arrays.fill(squares, EMPTY);
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("FEN must describe 8 ranks: " + fields[0]);
+        }
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            int col = 0;
+            for (char c : ranks[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else if (col < BOARD_SIZE) {
+                    PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                    squares[squareIndex(row, col++)] = pieceIndex(PieceType.fromString(String.valueOf(c)), color);
+                } else {
+                    col++;
+                }
+            }
+            if (col != BOARD_SIZE) {
+                throw new IllegalArgumentException("FEN rank does not have 8 squares: " + ranks[row]);
+            }
+        }
+        
+        PieceColor side;
+        if (fields[1].equals("w")) {
+            side = PieceColor.WHITE;
+        } else if (fields[1].equals("b")) {
+            side = PieceColor.BLACK;
+        } else {
+            throw new IllegalArgumentException("FEN side to move must be 'w' or 'b': " + fields[1]);
+        }
+        
+        int rights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                switch (c) {
+                    case 'K': rights |= CASTLE_WHITE_KINGSIDE; break;
+                    case 'Q': rights |= CASTLE_WHITE_QUEENSIDE; break;
+                    case 'k': rights |= CASTLE_BLACK_KINGSIDE; break;
+                    case 'q': rights |= CASTLE_BLACK_QUEENSIDE; break;
+                    default:
+                        throw new IllegalArgumentException("Invalid FEN castling field: " + fields[2]);
+                }
+            }
+        }
+        
+        int enPassant = fields[3].equals("-") ? -1 : Position.fromAlgebraic(fields[3]).toIndex();
+        int halfmoves = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+        int fullMoves = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        if (halfmoves < 0) {
+            throw new IllegalArgumentException("FEN half-move clock cannot be negative: " + halfmoves);
+        }
+        
+        clearBoard();
+        for (int square = 0; square < squares.length; square++) {
+            if (squares[square] != EMPTY) {
+                putPiece(square, squares[square]);
+            }
+        }
+        sideToMove = side;
+        castlingRights = rights;
+        enPassantTarget = enPassant;
+        halfmoveClock = halfmoves;
+        lastMoveNumber = Math.max(0, (fullMoves - 1) * 2 + (side == PieceColor.BLACK ? 1 : 0));
+        undoDepth = 0;
+        loadedHistory = new int[0];
+        hash = computeHash();
+    }
+    
     /**
      * Convert chess notation to Position (e.g., "a8" -> Position(0,0)).
      */
@@ -914,7 +1438,7 @@ public class Board {
         int rank = Integer.parseInt(notation.substring(1));
         int col = file - 'a';
         int row = 8 - rank;
-        return new Position(row, col);
+        return Position.of(row, col);
     }
     
     /**
@@ -947,8 +1471,9 @@ public class Board {
         for (int row = 0; row < BOARD_SIZE; row++) {
             sb.append(8 - row).append(" ");
             for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null) {
+                int index = mailbox[squareIndex(row, col)];
+                if (index != EMPTY) {
+                    Piece piece = Piece.fromIndex(index);
                     if (displayMode == Piece.DisplayMode.UNICODE) {
                         // Unicode symbols are 1 char, so pad to 3 chars to match [P] width
                         String unicodeSymbol = piece.toString(displayMode);
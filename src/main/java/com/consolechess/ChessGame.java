@@ -2,6 +2,13 @@ package com.consolechess;
 
 import java.util.Scanner;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import com.consolechess.engine.ParallelSearch;
+import com.consolechess.engine.SearchLimits;
+import com.consolechess.engine.SearchResult;
+import com.consolechess.engine.TranspositionTable;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -79,6 +86,12 @@ public class ChessGame {
     /** Command to change display mode */
     private static final String CMD_DISPLAY = "display";
     
+    /** Command prefix for counting move-tree leaf nodes */
+    private static final String CMD_PERFT_PREFIX = "perft ";
+    
+    /** Deepest perft the console command accepts */
+    private static final int MAX_PERFT_DEPTH = 8;
+    
     /** Kingside castling notation */
     private static final String CASTLING_KINGSIDE = "o-o";
     
@@ -94,10 +107,45 @@ public class ChessGame {
     /** Expected length for standard move notation (e.g., "e2e4") */
     private static final int STANDARD_MOVE_LENGTH = 4;
     
+    /** Command to let the engine analyze the current position */
+    private static final String CMD_ANALYZE = "analyze";
+    
+    /** Command to toggle the engine playing the opponent */
+    private static final String CMD_COMPUTER = "computer";
+    
+    /** Command to show the best move the background analysis has found so far */
+    private static final String CMD_HINT = "hint";
+    
+    /** Thinking time of the analyze command in milliseconds */
+    private static final long ANALYSIS_TIME_MILLIS = 3000;
+    
+    /** Default time on the computer opponent's clock in seconds */
+    private static final int DEFAULT_CLOCK_SECONDS = 60;
+    
+    /** Default time added to the computer opponent's clock after each of its moves in seconds */
+    private static final int DEFAULT_INCREMENT_SECONDS = 1;
+    
+    /** Longest accepted clock time or increment in seconds (one day) */
+    private static final int MAX_CLOCK_SECONDS = 86400;
+    
+    /** Command line option setting the transposition table size in MB */
+    private static final String OPTION_HASH = "--hash";
+    
+    /** Command line option setting the number of engine search threads */
+    private static final String OPTION_THREADS = "--threads";
+    
+    /** Command line option setting the computer opponent's clock in seconds */
+    private static final String OPTION_TIME = "--time";
+    
+    /** Command line option setting the computer opponent's increment in seconds */
+    private static final String OPTION_INCREMENT = "--increment";
+    
     // Game state
     private final Board board;
     private final Scanner scanner;
     private final MoveLogger moveLogger;
+    private final TranspositionTable transpositionTable;
+    private final ParallelSearch search;
     
     private Player whitePlayer;
     private Player blackPlayer;
@@ -105,6 +153,22 @@ public class ChessGame {
     private boolean gameRunning;
     private boolean gameEnded;
     private Piece.DisplayMode currentDisplayMode;
+    /** Side played by the engine, or null when both sides are human */
+    private PieceColor computerColor;
+    /** Time left on the computer opponent's clock in milliseconds */
+    private long computerClockMillis;
+    /** Time added to the computer opponent's clock after each of its moves in milliseconds */
+    private final long incrementMillis;
+    /** Reply the engine expects to its last move, to ponder on while the human thinks */
+    private int expectedReply = Move.NONE;
+    /** Background search: analysis of the current position or a ponder search; null when idle */
+    private Future<SearchResult> backgroundSearch;
+    /** Human move the running ponder search assumes, or {@link Move#NONE} while analyzing */
+    private int ponderMove = Move.NONE;
+    /** Position key of the position the background analysis searches */
+    private long analysisKey;
+    /** Deepest iteration the background analysis has completed, published by the search thread */
+    private volatile SearchResult latestAnalysis;
     
     /**
      * Constructs a new ChessGame instance with default settings.
@@ -120,6 +184,41 @@ public class ChessGame {
      * @throws RuntimeException if save directory cannot be created
      */
     public ChessGame() {
+        this(TranspositionTable.DEFAULT_MEGABYTES, 1);
+    }
+    
+    /**
+     * Constructs a new ChessGame instance whose engine uses a transposition table of the
+     * given size and the given number of search threads, with the default clock for the
+     * computer opponent.
+     * 
+     * @param hashMegabytes the transposition table size in MB
+     * @param threads the number of engine search threads
+     * @throws IllegalArgumentException if the size or thread count is out of range
+     */
+    public ChessGame(int hashMegabytes, int threads) {
+        this(hashMegabytes, threads, DEFAULT_CLOCK_SECONDS * 1000L, DEFAULT_INCREMENT_SECONDS * 1000L);
+    }
+    
+    /**
+     * Constructs a new ChessGame instance whose engine uses a transposition table of the
+     * given size and the given number of search threads, and whose computer opponent
+     * plays on the given clock.
+     * 
+     * @param hashMegabytes the transposition table size in MB
+     * @param threads the number of engine search threads
+     * @param clockMillis the computer opponent's time for the game in milliseconds
+     * @param incrementMillis the time added to its clock after each of its moves in milliseconds
+     * @throws IllegalArgumentException if the size, thread count or a time is out of range
+     */
+    public ChessGame(int hashMegabytes, int threads, long clockMillis, long incrementMillis) {
+        if (clockMillis < 1 || incrementMillis < 0) {
+            throw new IllegalArgumentException("Invalid clock: " + clockMillis + " ms + " + incrementMillis + " ms");
+        }
+        this.transpositionTable = new TranspositionTable(hashMegabytes);
+        this.search = new ParallelSearch(transpositionTable, threads);
+        this.computerClockMillis = clockMillis;
+        this.incrementMillis = incrementMillis;
         this.board = new Board();
         this.scanner = new Scanner(System.in);
         this.gameRunning = true;
@@ -154,11 +253,32 @@ public class ChessGame {
      * and starts the main game loop. Handles any critical errors during
      * game startup.</p>
      * 
-     * @param args command line arguments (currently unused)
+     * @param args command line options: {@code --hash <MB>} sets the engine's
+     *             transposition table size, {@code --threads <n>} its number of
+     *             search threads, and {@code --time <s>} and {@code --increment <s>}
+     *             the computer opponent's clock
      */
     public static void main(String[] args) {
+        int hashMegabytes;
+        int threads;
+        int clockSeconds;
+        int incrementSeconds;
+        try {
+            hashMegabytes = parseOption(args, OPTION_HASH, TranspositionTable.DEFAULT_MEGABYTES,
+                TranspositionTable.MAX_MEGABYTES);
+            threads = parseOption(args, OPTION_THREADS, 1, ParallelSearch.MAX_THREADS);
+            clockSeconds = parseOption(args, OPTION_TIME, DEFAULT_CLOCK_SECONDS, MAX_CLOCK_SECONDS);
+            incrementSeconds = parseOption(args, OPTION_INCREMENT, DEFAULT_INCREMENT_SECONDS, 0, MAX_CLOCK_SECONDS);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java com.consolechess.ChessGame [" + OPTION_HASH + " <MB>] ["
+                + OPTION_THREADS + " <n>] [" + OPTION_TIME + " <seconds>] [" + OPTION_INCREMENT + " <seconds>]");
+            System.exit(1);
+            return;
+        }
+        
         try {
-            ChessGame game = new ChessGame();
+            ChessGame game = new ChessGame(hashMegabytes, threads, clockSeconds * 1000L, incrementSeconds * 1000L);
             game.initializeGame();
             game.playGame();
         } catch (Exception e) {
@@ -169,6 +289,56 @@ public class ChessGame {
         }
     }
 
+    /**
+     * Read one numeric engine option ({@code --hash <MB>}, {@code --threads <n>},
+     * {@code --time <s>} or {@code --increment <s>}) from the command line options.
+     * 
+     * @param args the command line arguments
+     * @param option the option to read
+     * @param defaultValue the value if the option is absent
+     * @param max the largest accepted value (the smallest is 1)
+     * @return the option's value
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid
+     */
+    static int parseOption(String[] args, String option, int defaultValue, int max) {
+        return parseOption(args, option, defaultValue, 1, max);
+    }
+    
+    /**
+     * Read one numeric engine option with the given range from the command line options.
+     * 
+     * @param args the command line arguments
+     * @param option the option to read
+     * @param defaultValue the value if the option is absent
+     * @param min the smallest accepted value
+     * @param max the largest accepted value
+     * @return the option's value
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid
+     */
+    static int parseOption(String[] args, String option, int defaultValue, int min, int max) {
+        int value = defaultValue;
+        for (int i = 0; i < args.length; i++) {
+            boolean known = args[i].equals(OPTION_HASH) || args[i].equals(OPTION_THREADS)
+                || args[i].equals(OPTION_TIME) || args[i].equals(OPTION_INCREMENT);
+            if (!known || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            String text = args[++i];
+            if (!args[i - 1].equals(option)) {
+                continue;
+            }
+            try {
+                value = Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " must be a number: " + text);
+            }
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(option + " must be between " + min + " and " + max);
+            }
+        }
+        return value;
+    }
+    
     /**
      * Initialize the game by setting up players and displaying welcome information.
      * 
@@ -283,6 +453,7 @@ public class ChessGame {
         System.out.println("- Enter moves: e2e4 (from square to square)");
         System.out.println("- Castling: O-O (kingside) or O-O-O (queenside)");
         System.out.println("- Type 'pip' to see all valid moves");
+        System.out.println("- Type 'computer' to play against the engine");
         System.out.println("- Type 'display' to switch to Unicode symbols (if supported)");
         System.out.println("- Type 'help' for complete command list");
         System.out.println("- Type 'quit' or 'q' to exit game");
@@ -315,6 +486,11 @@ public class ChessGame {
                     break;
                 }
                 
+                if (currentPlayer.getColor() == computerColor) {
+                    playComputerMove();
+                    continue;
+                }
+                
                 // Get and process player input
                 String input = getPlayerInput();
                 processPlayerInput(input);
@@ -329,12 +505,14 @@ public class ChessGame {
     }
     
     /**
-     * Display the complete current game state.
+     * Display the complete current game state, and let the engine analyze the position
+     * in the background while the player thinks.
      */
     private void displayGameState() {
         displayBoard();
         displayCurrentPlayerInfo();
         displayGameStatus();
+        startAnalysis();
     }
     
     /**
@@ -375,11 +553,13 @@ public class ChessGame {
     }
     
     /**
-     * Get input from the current player.
+     * Get input from the current player. While the human thinks, the engine ponders on
+     * the reply it expects.
      * 
      * @return the player's input command, trimmed and converted to lowercase
      */
     private String getPlayerInput() {
+        startPondering();
         System.out.print("\nEnter your move: ");
         return scanner.nextLine().trim().toLowerCase();
     }
@@ -460,6 +640,26 @@ public class ChessGame {
             return;
         }
         
+        if (input.startsWith(CMD_PERFT_PREFIX)) {
+            runPerft(input.substring(CMD_PERFT_PREFIX.length()).trim());
+            return;
+        }
+        
+        if (input.equals(CMD_ANALYZE)) {
+            analyzePosition();
+            return;
+        }
+        
+        if (input.equals(CMD_COMPUTER)) {
+            toggleComputerOpponent();
+            return;
+        }
+        
+        if (input.equals(CMD_HINT)) {
+            showHint();
+            return;
+        }
+        
         // Handle special castling notation
         if (input.equals(CASTLING_KINGSIDE) || input.equals(CASTLING_KINGSIDE_ALT)) {
             handleCastling(true); // Kingside
@@ -505,6 +705,8 @@ public class ChessGame {
         }
         
         // Close resources
+        stopBackgroundSearch();
+        search.close();
         try {
             scanner.close();
         } catch (Exception e) {
@@ -535,6 +737,12 @@ public class ChessGame {
         System.out.println(">> Information Commands:");
         System.out.println("  pip            - Show all valid moves for current player");
         System.out.println("  display        - Toggle between bracketed [P] and Unicode ♔ symbols");
+        System.out.println("  perft <depth>  - Count move-tree leaf nodes per move, with nodes/second");
+        System.out.println("  analyze        - Let the engine search for the best move and show its lines");
+        System.out.println("  hint           - Show the best move the engine has found while you think");
+        System.out.println();
+        System.out.println(">> Engine Commands:");
+        System.out.println("  computer       - Toggle the engine playing your opponent's pieces");
         System.out.println();
         System.out.println(">> File Commands:");
         System.out.println("  save <name>    - Save current game (e.g., 'save mygame')");
@@ -564,45 +772,16 @@ public class ChessGame {
      */
     private boolean makeMove(Position from, Position to, String fromSquare, String toSquare) {
         if (board.isValidMove(from, to, currentPlayer.getColor())) {
-            // Get piece information before making the move
-            Piece movingPiece = board.getPiece(from);
-            Piece capturedPiece = board.getPiece(to);
-            boolean isCapture = (capturedPiece != null);
+            // A pawn reaching the back rank needs its promotion piece before the move is made
+            PieceType promoteTo = isPromotion(board.getPiece(from), to) ? askPromotionPiece() : null;
+            int move = board.findLegalMove(from, to, promoteTo);
+            if (move == Move.NONE) {
+                System.out.println("Invalid move! Please try again.");
+                return false;
+            }
             
-            // Make the move
-            board.makeMove(from, to);
             System.out.println("Move successful!");
-            
-            // Log the move
-            moveLogger.logMove(currentPlayer.getName(), currentPlayer.getColor(), 
-                             fromSquare, toSquare, movingPiece.getType().toString(), isCapture);
-            
-            // Handle pawn promotion if applicable
-            handlePromotionIfNeeded(to, toSquare);
-            
-            // Announce check if the opponent's king is in check after this move
-            Player opponent = (currentPlayer == whitePlayer) ? blackPlayer : whitePlayer;
-            if (board.isInCheck(opponent.getColor())) {
-                System.out.println("Check!");
-                moveLogger.logCheck(opponent.getName(), opponent.getColor());
-                
-                // Checkmate detection: opponent is in check and has no legal move
-                if (!board.hasAnyLegalMove(opponent.getColor())) {
-                    System.out.println("Checkmate! Winner: " + currentPlayer.getName());
-                    moveLogger.logCheckmate(currentPlayer.getName(), currentPlayer.getColor(),
-                                          opponent.getName(), opponent.getColor());
-                    gameRunning = false;
-                    gameEnded = true;
-                }
-            } else {
-                // Stalemate detection: not in check and no legal moves
-                if (!board.hasAnyLegalMove(opponent.getColor())) {
-                    System.out.println("Stalemate! The game is a draw.");
-                    moveLogger.logStalemate();
-                    gameRunning = false;
-                    gameEnded = true;
-                }
-            }
+            playMove(move);
             return true;
         } else {
             System.out.println("Invalid move! Please try again.");
@@ -611,35 +790,240 @@ public class ChessGame {
     }
 
     /**
-     * If the moved piece is a pawn that reached the back rank, prompt for promotion.
+     * Play a legal move for the current player, log it and announce check, checkmate
+     * or stalemate.
+     * 
+     * @param move the encoded {@link Move}, legal in the current position
+     */
+    private void playMove(int move) {
+        // Analysis of the old position is of no use any more; a ponder search is
+        if (ponderMove == Move.NONE) {
+            stopBackgroundSearch();
+        }
+        
+        // Get piece information before making the move
+        Position from = Position.of(Move.from(move));
+        Piece movingPiece = board.getPiece(from);
+        boolean isCapture = Move.isCapture(move);
+        String fromSquare = Move.squareToString(Move.from(move));
+        String toSquare = Move.squareToString(Move.to(move));
+        PieceType promoteTo = Move.promotion(move);
+        
+        // Make the move
+        board.makeMove(move);
+        
+        // Log the move
+        moveLogger.logMove(currentPlayer.getName(), currentPlayer.getColor(), 
+                         fromSquare, toSquare, movingPiece.getType().toString(), isCapture);
+        
+        if (promoteTo != null) {
+            System.out.println("Pawn promoted to " + promoteTo + "!");
+            
+            // Log the promotion
+            moveLogger.logPromotion(currentPlayer.getName(), currentPlayer.getColor(),
+                                  toSquare, promoteTo);
+        }
+        
+        // Announce check if the opponent's king is in check after this move
+        Player opponent = (currentPlayer == whitePlayer) ? blackPlayer : whitePlayer;
+        if (board.isInCheck(opponent.getColor())) {
+            System.out.println("Check!");
+            moveLogger.logCheck(opponent.getName(), opponent.getColor());
+            
+            // Checkmate detection: opponent is in check and has no legal move
+            if (!board.hasAnyLegalMove(opponent.getColor())) {
+                System.out.println("Checkmate! Winner: " + currentPlayer.getName());
+                moveLogger.logCheckmate(currentPlayer.getName(), currentPlayer.getColor(),
+                                      opponent.getName(), opponent.getColor());
+                gameRunning = false;
+                gameEnded = true;
+            }
+        } else {
+            // Stalemate detection: not in check and no legal moves
+            if (!board.hasAnyLegalMove(opponent.getColor())) {
+                System.out.println("Stalemate! The game is a draw.");
+                moveLogger.logStalemate();
+                gameRunning = false;
+                gameEnded = true;
+            }
+        }
+    }
+
+    /**
+     * Let the engine choose and play a move for the current player, within the time its
+     * clock allows. If the human played the move it pondered on, the ponder search simply
+     * continues as the real search.
+     */
+    private void playComputerMove() {
+        System.out.println("\n" + currentPlayer.getName() + " is thinking...");
+        long start = System.currentTimeMillis();
+        SearchResult result = null;
+        if (backgroundSearch != null && ponderMove != Move.NONE && board.getLastMove() == ponderMove) {
+            search.ponderHit();
+            result = awaitSearch(backgroundSearch);
+            backgroundSearch = null;
+        }
+        stopBackgroundSearch();
+        if (result == null) {
+            result = search.search(board, SearchLimits.clock(computerClockMillis, incrementMillis));
+        }
+        long used = System.currentTimeMillis() - start;
+        computerClockMillis = Math.max(1, computerClockMillis - used) + incrementMillis;
+        
+        int move = result.getBestMove();
+        if (move == Move.NONE) {
+            // No legal move: checkmate or stalemate was announced after the last move
+            gameRunning = false;
+            gameEnded = true;
+            return;
+        }
+        System.out.printf("%s plays %s (%s, depth %d, %.1f s, %d s left on its clock)%n",
+            currentPlayer.getName(), Move.toString(move), result.formatScore(), result.getDepth(),
+            used / 1000.0, computerClockMillis / 1000);
+        playMove(move);
+        switchPlayer();
+        expectedReply = result.getPonderMove();
+    }
+    
+    /**
+     * Start pondering on the reply the engine expects, unless a ponder search is already
+     * running or there is nothing to ponder on.
+     */
+    private void startPondering() {
+        int reply = expectedReply;
+        expectedReply = Move.NONE;
+        if (computerColor == null || reply == Move.NONE || !board.isLegalMove(reply)) {
+            return;
+        }
+        stopBackgroundSearch();
+        Board afterReply = new Board(board);
+        afterReply.makeMove(reply);
+        ponderMove = reply;
+        backgroundSearch = search.start(afterReply,
+            SearchLimits.clock(computerClockMillis, incrementMillis).withPonder(true), null);
+    }
+    
+    /**
+     * Start analyzing the current position in the background for the hint command,
+     * unless it is the computer's turn, the engine is about to ponder, or the position
+     * is already being analyzed. Returns at once.
      */
-    private void handlePromotionIfNeeded(Position to, String square) {
-        Piece moved = board.getPiece(to);
-        if (moved == null || moved.getType() != PieceType.PAWN) {
+    private void startAnalysis() {
+        if (gameEnded || currentPlayer.getColor() == computerColor) {
             return;
         }
-        boolean whiteAtBackRank = moved.getColor() == PieceColor.WHITE && to.getRow() == 0;
-        boolean blackAtBackRank = moved.getColor() == PieceColor.BLACK && to.getRow() == 7;
-        if (!(whiteAtBackRank || blackAtBackRank)) {
+        if (backgroundSearch != null && (ponderMove != Move.NONE || analysisKey == board.getHash())) {
+            return;
+        }
+        if (computerColor != null && expectedReply != Move.NONE) {
+            return;
+        }
+        stopBackgroundSearch();
+        analysisKey = board.getHash();
+        latestAnalysis = null;
+        backgroundSearch = search.start(board, SearchLimits.infinite(), iteration -> latestAnalysis = iteration);
+    }
+    
+    /**
+     * Show the best move found so far without waiting for the engine (hint command).
+     */
+    private void showHint() {
+        if (backgroundSearch != null && ponderMove != Move.NONE) {
+            System.out.println("Hint: the engine expects you to play " + Move.toString(ponderMove));
             return;
         }
+        SearchResult analysis = latestAnalysis;
+        if (backgroundSearch == null || analysisKey != board.getHash() || analysis == null) {
+            System.out.println("The engine has no suggestion yet. Try again in a moment.");
+        } else if (analysis.getBestMove() == Move.NONE) {
+            System.out.println("No legal moves in this position.");
+        } else {
+            System.out.printf("Hint: %s (%s, depth %d)%n", Move.toString(analysis.getBestMove()),
+                analysis.formatScore(), analysis.getDepth());
+        }
+    }
+    
+    /**
+     * Stop the running analysis or ponder search and discard its result.
+     */
+    private void stopBackgroundSearch() {
+        if (backgroundSearch != null) {
+            search.stop();
+            awaitSearch(backgroundSearch);
+            backgroundSearch = null;
+        }
+        ponderMove = Move.NONE;
+    }
+    
+    /**
+     * Wait for a background search to finish.
+     */
+    private SearchResult awaitSearch(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the engine", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Engine search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Search the current position and print each completed iteration (analyze command).
+     */
+    private void analyzePosition() {
+        stopBackgroundSearch();
+        System.out.println("\nAnalyzing for " + currentPlayer.getColor() + " to move ("
+            + ANALYSIS_TIME_MILLIS / 1000 + " seconds)...");
+        SearchResult result = search.search(board, SearchLimits.time(ANALYSIS_TIME_MILLIS),
+            iteration -> System.out.println("  " + iteration));
+        if (result.getBestMove() == Move.NONE) {
+            System.out.println("No legal moves in this position.");
+            return;
+        }
+        System.out.println("Best move: " + Move.toString(result.getBestMove())
+            + " (" + result.formatScore() + ")");
+    }
+
+    /**
+     * Toggle the engine playing the side that is not to move (computer command).
+     */
+    private void toggleComputerOpponent() {
+        stopBackgroundSearch();
+        if (computerColor != null) {
+            computerColor = null;
+            System.out.println("Computer opponent disabled. Both sides are played from the console.");
+        } else {
+            computerColor = currentPlayer.getColor().opposite();
+            System.out.println("Computer opponent enabled. The engine now plays "
+                + computerColor.getDisplayName() + ".");
+        }
+    }
+
+    /**
+     * Check whether moving the given piece to a square is a pawn reaching the back rank.
+     */
+    private boolean isPromotion(Piece moving, Position to) {
+        if (moving.getType() != PieceType.PAWN) {
+            return false;
+        }
+        boolean whiteAtBackRank = moving.getColor() == PieceColor.WHITE && to.getRow() == 0;
+        boolean blackAtBackRank = moving.getColor() == PieceColor.BLACK && to.getRow() == 7;
+        return whiteAtBackRank || blackAtBackRank;
+    }
+
+    /**
+     * Prompt until the player picks a promotion piece.
+     */
+    private PieceType askPromotionPiece() {
         while (true) {
             System.out.print("Promote pawn to (Q/R/B/N): ");
             String choice = scanner.nextLine().trim().toLowerCase();
-            PieceType promoteTo = null;
-            if (choice.equals("q") || choice.equals("queen")) promoteTo = PieceType.QUEEN;
-            else if (choice.equals("r") || choice.equals("rook")) promoteTo = PieceType.ROOK;
-            else if (choice.equals("b") || choice.equals("bishop")) promoteTo = PieceType.BISHOP;
-            else if (choice.equals("n") || choice.equals("knight")) promoteTo = PieceType.KNIGHT;
-            if (promoteTo != null) {
-                board.setPiece(to, new Piece(promoteTo, moved.getColor()));
-                System.out.println("Pawn promoted to " + promoteTo + "!");
-                
-                // Log the promotion
-                moveLogger.logPromotion(currentPlayer.getName(), currentPlayer.getColor(),
-                                      square, promoteTo);
-                break;
-            }
+            if (choice.equals("q") || choice.equals("queen")) return PieceType.QUEEN;
+            if (choice.equals("r") || choice.equals("rook")) return PieceType.ROOK;
+            if (choice.equals("b") || choice.equals("bishop")) return PieceType.BISHOP;
+            if (choice.equals("n") || choice.equals("knight")) return PieceType.KNIGHT;
             System.out.println("Invalid choice. Enter Q, R, B, or N.");
         }
     }
@@ -668,7 +1052,7 @@ public class ChessGame {
         int file = square.charAt(0) - 'a';
         int rankNum = square.charAt(1) - '0'; // ranks 1-8
         int row = 8 - rankNum; // rank 1 -> row 7 (bottom), rank 8 -> row 0 (top)
-        return new Position(row, file);
+        return Position.of(row, file);
     }
 
     /**
@@ -696,6 +1080,27 @@ public class ChessGame {
         }
     }
     
+    /**
+     * Run a perft divide from the current position (perft command).
+     */
+    private void runPerft(String depthText) {
+        int depth;
+        try {
+            depth = Integer.parseInt(depthText);
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: perft <depth> (1-" + MAX_PERFT_DEPTH + ")");
+            return;
+        }
+        if (depth < 1 || depth > MAX_PERFT_DEPTH) {
+            System.out.println("Perft depth must be between 1 and " + MAX_PERFT_DEPTH);
+            return;
+        }
+        // The background analysis would skew the nodes/second figures
+        stopBackgroundSearch();
+        System.out.println("\nPerft " + depth + " for " + currentPlayer.getColor() + " to move:");
+        Perft.report(board, depth, ForkJoinPool.commonPool());
+    }
+    
     /**
      * Save the current game state to a file.
      */
@@ -740,6 +1145,9 @@ public class ChessGame {
             System.out.println("Please provide a filename. Usage: load <filename>");
             return;
         }
+        // A loaded game shares nothing with the one the engine has been learning from
+        stopBackgroundSearch();
+        search.newGame();
         
         try {
             // Add .sav extension if not present
@@ -802,8 +1210,8 @@ public class ChessGame {
      */
     private void handleCastling(boolean kingside) {
         int row = currentPlayer.getColor() == PieceColor.WHITE ? 7 : 0;
-        Position kingPos = new Position(row, 4);
-        Position kingDestPos = new Position(row, kingside ? 6 : 2);
+        Position kingPos = Position.of(row, 4);
+        Position kingDestPos = Position.of(row, kingside ? 6 : 2);
         
         if (makeMove(kingPos, kingDestPos, 
                      positionToNotation(kingPos), 
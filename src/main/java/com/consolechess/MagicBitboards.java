@@ -0,0 +1,194 @@
+package com.consolechess;
+
+/**
+ * Magic-bitboard attack generation for the sliding pieces: rook, bishop and queen.
+ *
+ * <p>For every square the relevant blocker mask (the slider's rays, excluding the board
+ * edge) is multiplied by a "magic" constant and shifted, which maps each possible
+ * blocker configuration to a unique slot in a precomputed attack table. Looking up the
+ * full attack set of a slider for any occupancy is therefore a mask, a multiply, a
+ * shift and an array read.</p>
+ *
+ * <p>The magic numbers below were found offline by a trial search for this board's
+ * square convention ({@code row * 8 + column}, 0 = a8, 63 = h1). Class loading only
+ * fills the attack tables, and fails fast if a magic ever produces a collision.</p>
+ *
+ * <p>This class is immutable after initialization and therefore thread-safe.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class MagicBitboards {
+
+    private static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MAGICS = {
+        0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+        0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+        0x0400800040008021L, 0x0400400020005000L, 0x8240801000200080L, 0x8611001004200900L,
+        0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+        0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+        0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+        0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+        0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+        0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+        0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+        0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+        0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+        0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+        0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+        0x8044110480002441L, 0x2008110084402202L, 0x90806005090010C1L, 0x000420310A004A42L,
+        0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+        0x0045010808008680L, 0x2002080204004898L, 0x0210009A10400006L, 0x0824050200810200L,
+        0x0006061105004090L, 0x00010108C0000000L, 0x0814040282104004L, 0x0012012201106800L,
+        0x10823014100C1040L, 0x0080C2088802808CL, 0x0281108410404000L, 0x0101212041826200L,
+        0x0020141028221058L, 0x2201020202200202L, 0x000082A801482000L, 0x0000008401411044L,
+        0x0007103014300404L, 0x0002091110010100L, 0x42140012040C0808L, 0x0800808802004020L,
+        0x90C4004210140000L, 0x0800200900A01000L, 0x00D0400201108810L, 0x80820183814412A0L,
+        0x00A01008202202B4L, 0x01C2021A09500402L, 0x0084440208042400L, 0x800400400C090100L,
+        0xBA10040010802100L, 0xD182009006005000L, 0x5011021001009004L, 0x0020420200510400L,
+        0x0292104000468800L, 0x00043009091C0500L, 0x0280441000020025L, 0x0042820080080080L,
+        0x0440101010010040L, 0x1000900100808080L, 0x0108108120089800L, 0x0044010200012682L,
+        0xC002500420900400L, 0x0040482210710800L, 0x0002060024000200L, 0x0281020A44000800L,
+        0xA0021200A4000200L, 0x0001301000840840L, 0x2868500108444220L, 0x0004111041000200L,
+        0x8044020842080200L, 0x0000220104210200L, 0x0000021201044000L, 0x0000280884040028L,
+        0x4012114010858003L, 0x0000081004082B88L, 0x3892700508208002L, 0x00220A041B060400L,
+        0x0812020284014881L, 0x010434A282103100L, 0x0490400824020800L, 0x4A20002C00208800L,
+        0x000000A011020200L, 0x4002940A02482202L, 0x5100100202140406L, 0x02102000840540C1L
+    };
+
+    private static final long[] ROOK_MASKS = new long[SQUARES];
+    private static final int[] ROOK_SHIFTS = new int[SQUARES];
+    private static final int[] ROOK_OFFSETS = new int[SQUARES];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[SQUARES];
+    private static final int[] BISHOP_SHIFTS = new int[SQUARES];
+    private static final int[] BISHOP_OFFSETS = new int[SQUARES];
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        ROOK_TABLE = initialize(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initialize(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private MagicBitboards() {
+        // Static lookup tables only
+    }
+
+    /**
+     * Returns the squares attacked by a rook on the given square.
+     *
+     * @param square the square index (0-63)
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker on each ray
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        long index = ((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square];
+        return ROOK_TABLE[ROOK_OFFSETS[square] + (int) index];
+    }
+
+    /**
+     * Returns the squares attacked by a bishop on the given square.
+     *
+     * @param square the square index (0-63)
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker on each ray
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        long index = ((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square];
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int) index];
+    }
+
+    /**
+     * Returns the squares attacked by a queen on the given square.
+     *
+     * @param square the square index (0-63)
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker on each ray
+     */
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * Computes slider attacks by walking each ray square by square.
+     * Used to build the magic tables and to verify them in tests.
+     *
+     * @param square the square index (0-63)
+     * @param occupancy bitboard of all occupied squares
+     * @param rook true for rook rays, false for bishop rays
+     * @return bitboard of attacked squares
+     */
+    static long slowAttacks(int square, long occupancy, boolean rook) {
+        return rayAttacks(square, occupancy, rook ? ROOK_DIRECTIONS : BISHOP_DIRECTIONS, false);
+    }
+
+    private static long rayAttacks(int square, long occupancy, int[][] directions, boolean excludeEdges) {
+        long attacks = 0L;
+        int row = square / Board.BOARD_SIZE;
+        int col = square % Board.BOARD_SIZE;
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (Position.isValidPosition(r, c)) {
+                if (excludeEdges && !Position.isValidPosition(r + direction[0], c + direction[1])) {
+                    break;
+                }
+                long bit = 1L << (r * Board.BOARD_SIZE + c);
+                attacks |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long[] initialize(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            masks[square] = rayAttacks(square, 0L, directions, true);
+            shifts[square] = SQUARES - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < SQUARES; square++) {
+            fillTable(square, directions, masks[square], magics[square], shifts[square], table, offsets[square]);
+        }
+        return table;
+    }
+
+    /**
+     * Store the attack set of every blocker subset of the mask at its magic index.
+     */
+    private static void fillTable(int square, int[][] directions, long mask, long magic, int shift,
+                                  long[] table, int offset) {
+        int entries = 1 << Long.bitCount(mask);
+        boolean[] used = new boolean[entries];
+
+        // Enumerate every subset of the mask (carry-rippler trick)
+        long subset = 0L;
+        for (int i = 0; i < entries; i++) {
+            long attacks = rayAttacks(square, subset, directions, false);
+            int index = (int) ((subset * magic) >>> shift);
+            if (used[index] && table[offset + index] != attacks) {
+                throw new IllegalStateException("Magic collision on square " + square);
+            }
+            used[index] = true;
+            table[offset + index] = attacks;
+            subset = (subset - mask) & mask;
+        }
+    }
+}
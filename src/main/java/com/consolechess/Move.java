@@ -0,0 +1,186 @@
+package com.consolechess;
+
+/**
+ * Compact primitive encoding of a chess move in a single {@code int}.
+ *
+ * <p>Bit layout:</p>
+ * <ul>
+ *   <li>bits 0-5: origin square index (0 = a8, 63 = h1)</li>
+ *   <li>bits 6-11: destination square index</li>
+ *   <li>bits 12-15: move flags ({@link #CAPTURE}, {@link #DOUBLE_PUSH},
+ *       {@link #CASTLING}, {@link #EN_PASSANT})</li>
+ *   <li>bits 16-18: promotion piece type ordinal + 1, or 0 for no promotion</li>
+ * </ul>
+ *
+ * <p>Moves are plain ints so they can be stored, compared and passed around without
+ * allocating. {@link #NONE} (0) never denotes a real move because its origin and
+ * destination are the same square.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Move {
+
+    /** The null move value, meaning "no move" */
+    public static final int NONE = 0;
+
+    /** Flag: the move captures a piece (including en passant) */
+    public static final int CAPTURE = 1;
+
+    /** Flag: a pawn advances two squares from its starting rank */
+    public static final int DOUBLE_PUSH = 2;
+
+    /** Flag: the king castles; origin and destination are the king's squares */
+    public static final int CASTLING = 4;
+
+    /** Flag: a pawn captures en passant */
+    public static final int EN_PASSANT = 8;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int FLAGS_SHIFT = 12;
+    private static final int FLAGS_MASK = 0xF;
+    private static final int PROMOTION_SHIFT = 16;
+    private static final int PROMOTION_MASK = 0x7;
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Move() {
+        // Static encoding helpers only
+    }
+
+    /**
+     * Encodes a move without promotion.
+     *
+     * @param from the origin square index (0-63)
+     * @param to the destination square index (0-63)
+     * @param flags a combination of the flag constants
+     * @return the encoded move
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << TO_SHIFT) | (flags << FLAGS_SHIFT);
+    }
+
+    /**
+     * Encodes a move that may promote a pawn.
+     *
+     * @param from the origin square index (0-63)
+     * @param to the destination square index (0-63)
+     * @param flags a combination of the flag constants
+     * @param promotion the promotion piece type, or null for none
+     * @return the encoded move
+     */
+    public static int of(int from, int to, int flags, PieceType promotion) {
+        int move = of(from, to, flags);
+        return promotion == null ? move : move | ((promotion.ordinal() + 1) << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Returns the origin square index of a move.
+     */
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the destination square index of a move.
+     */
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the flag bits of a move.
+     */
+    public static int flags(int move) {
+        return (move >>> FLAGS_SHIFT) & FLAGS_MASK;
+    }
+
+    /**
+     * Returns true if the move captures a piece, including en passant.
+     */
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Returns true if the move is a castling move.
+     */
+    public static boolean isCastling(int move) {
+        return (flags(move) & CASTLING) != 0;
+    }
+
+    /**
+     * Returns true if the move is an en passant capture.
+     */
+    public static boolean isEnPassant(int move) {
+        return (flags(move) & EN_PASSANT) != 0;
+    }
+
+    /**
+     * Returns true if the move is a two-square pawn advance.
+     */
+    public static boolean isDoublePush(int move) {
+        return (flags(move) & DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Returns true if the move promotes a pawn.
+     */
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    /**
+     * Returns the promotion piece type of a move.
+     *
+     * @return the piece type the pawn becomes, or null if the move is not a promotion
+     */
+    public static PieceType promotion(int move) {
+        int code = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    /**
+     * Formats a move in coordinate notation, e.g. "e2e4", or "e7e8q" for a promotion.
+     *
+     * @param move the encoded move
+     * @return the coordinate notation, or "0000" for {@link #NONE}
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String notation = squareToString(from(move)) + squareToString(to(move));
+        PieceType promotion = promotion(move);
+        return promotion == null ? notation : notation + promotion.getNotation().toLowerCase();
+    }
+
+    /**
+     * Formats a move the way the game's move history records it: "O-O" / "O-O-O" for
+     * castling, "e5d6 e.p." for en passant and coordinate notation (with a promotion
+     * suffix) otherwise.
+     *
+     * @param move the encoded move
+     * @return the history notation
+     */
+    public static String toHistoryNotation(int move) {
+        if (isCastling(move)) {
+            return to(move) > from(move) ? "O-O" : "O-O-O";
+        }
+        return isEnPassant(move) ? toString(move) + " e.p." : toString(move);
+    }
+
+    /**
+     * Formats a square index in algebraic notation (e.g. 0 -> "a8", 63 -> "h1").
+     *
+     * @param square the square index (0-63)
+     * @return the algebraic square name
+     */
+    public static String squareToString(int square) {
+        char file = (char) ('a' + square % Board.BOARD_SIZE);
+        int rank = Board.BOARD_SIZE - square / Board.BOARD_SIZE;
+        return "" + file + rank;
+    }
+}
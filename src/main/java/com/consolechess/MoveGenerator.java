@@ -0,0 +1,319 @@
+package com.consolechess;
+
+/**
+ * Legal move generation for a {@link Board} using check and pin masks.
+ *
+ * <p>Instead of trying a move and asking whether the king is left in check, the
+ * generator first computes, for one side:</p>
+ * <ul>
+ *   <li>the pieces giving check and the resulting <em>check mask</em> (the squares a
+ *       non-king move must land on: the checker itself or a square blocking it)</li>
+ *   <li>the <em>pinned</em> pieces, which may only move along the line through their
+ *       king and the pinning slider</li>
+ * </ul>
+ * <p>Each piece's pseudo-legal target set is then intersected with those masks, so legal
+ * targets come out of a handful of bitboard operations. Only king moves and the rare
+ * en passant capture need an explicit attack test.</p>
+ *
+ * <p>Instances hold scratch state for the last prepared side and belong to a single
+ * board; like {@link Board}, they are not thread-safe.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+final class MoveGenerator {
+
+    private static final long ALL_SQUARES = -1L;
+
+    /** Squares of the first and last rank, where pawns promote */
+    private static final long PROMOTION_RANKS = 0xFF000000000000FFL;
+
+    private static final PieceType[] PROMOTIONS = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
+
+    private final Board board;
+
+    // Masks for the side prepared by the last call to prepare()
+    private PieceColor us;
+    private int kingSquare;
+    private long checkers;
+    private long checkMask;
+    private long pinned;
+
+    /**
+     * Creates a generator bound to the given board.
+     *
+     * @param board the board to generate moves for (not null)
+     */
+    MoveGenerator(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Compute the check and pin masks for one side in the board's current position.
+     * Must be called again whenever the position changes.
+     *
+     * @param color the side whose moves will be generated
+     */
+    void prepare(PieceColor color) {
+        us = color;
+        PieceColor them = color.opposite();
+        kingSquare = board.getKingSquare(color);
+        pinned = 0L;
+        if (kingSquare < 0) {
+            // Set-up positions without a king: nothing can be in check or pinned
+            checkers = 0L;
+            checkMask = ALL_SQUARES;
+            return;
+        }
+
+        long occupied = board.getOccupancy();
+        long theirs = board.getOccupancy(them);
+        checkers = board.attackersTo(kingSquare, occupied) & theirs;
+
+        int checkCount = Long.bitCount(checkers);
+        if (checkCount == 0) {
+            checkMask = ALL_SQUARES;
+        } else if (checkCount == 1) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Attacks.between(kingSquare, checker);
+        } else {
+            checkMask = 0L; // double check: only the king may move
+        }
+
+        // Enemy sliders that would attack the king if our pieces were transparent
+        long queens = board.getPieceBitboard(PieceType.QUEEN, them);
+        long snipers = (MagicBitboards.rookAttacks(kingSquare, theirs)
+                            & (board.getPieceBitboard(PieceType.ROOK, them) | queens))
+                     | (MagicBitboards.bishopAttacks(kingSquare, theirs)
+                            & (board.getPieceBitboard(PieceType.BISHOP, them) | queens));
+        long ours = board.getOccupancy(color);
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & ours) != 0) {
+                pinned |= blockers;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the prepared side is in check.
+     */
+    boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Returns the legal destination squares of the piece on the given square, which must
+     * belong to the side passed to {@link #prepare(PieceColor)}.
+     *
+     * @param from the square index of the moving piece
+     * @return bitboard of legal destination squares
+     */
+    long legalTargets(int from) {
+        Piece piece = board.pieceAt(from);
+        if (piece.getType() == PieceType.KING) {
+            return kingTargets(from);
+        }
+        if (checkMask == 0L) {
+            return 0L;
+        }
+
+        long occupied = board.getOccupancy();
+        long targets;
+        switch (piece.getType()) {
+            case PAWN:
+                targets = pawnTargets(from, occupied);
+                break;
+            case KNIGHT:
+                targets = Attacks.knightAttacks(from);
+                break;
+            case BISHOP:
+                targets = MagicBitboards.bishopAttacks(from, occupied);
+                break;
+            case ROOK:
+                targets = MagicBitboards.rookAttacks(from, occupied);
+                break;
+            case QUEEN:
+                targets = MagicBitboards.queenAttacks(from, occupied);
+                break;
+            default:
+                return 0L;
+        }
+        targets &= ~board.getOccupancy(us) & checkMask;
+        if ((pinned & (1L << from)) != 0) {
+            targets &= Attacks.line(kingSquare, from);
+        }
+
+        // En passant is validated separately: it removes a pawn that is not on the target square
+        if (piece.getType() == PieceType.PAWN) {
+            int enPassant = enPassantSquare(from);
+            if (enPassant >= 0 && isLegalEnPassant(from, enPassant)) {
+                targets |= 1L << enPassant;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Append every legal move of the prepared side to a move list, encoded with
+     * {@link Move} flags. A pawn reaching the last rank yields one move per promotion
+     * piece, queen first.
+     *
+     * @param moves the list to append to (not null)
+     */
+    void generateMoves(MoveList moves) {
+        generateMoves(moves, false);
+    }
+
+    /**
+     * Append the legal moves of the prepared side to a move list, optionally only the
+     * tactical ones: captures (including en passant) and promotions. In tactical mode a
+     * promotion is generated to a queen only.
+     *
+     * @param moves the list to append to (not null)
+     * @param tacticalOnly true to skip quiet moves and under-promotions
+     */
+    void generateMoves(MoveList moves, boolean tacticalOnly) {
+        long theirs = board.getOccupancy(us.opposite());
+        int enPassant = board.enPassantSquare();
+        long tacticalPawnTargets = theirs | PROMOTION_RANKS | (enPassant >= 0 ? 1L << enPassant : 0L);
+        long pieces = board.getOccupancy(us);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            PieceType type = board.pieceAt(from).getType();
+            long targets = legalTargets(from);
+            if (tacticalOnly) {
+                targets &= type == PieceType.PAWN ? tacticalPawnTargets : theirs;
+            }
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                int flags = (theirs & (1L << to)) != 0 ? Move.CAPTURE : 0;
+                if (type == PieceType.PAWN) {
+                    if (to == enPassant && to % Board.BOARD_SIZE != from % Board.BOARD_SIZE) {
+                        flags |= Move.EN_PASSANT | Move.CAPTURE;
+                    } else if (Math.abs(to - from) == 2 * Board.BOARD_SIZE) {
+                        flags |= Move.DOUBLE_PUSH;
+                    }
+                    int toRow = to / Board.BOARD_SIZE;
+                    if (toRow == Board.BLACK_BACK_RANK || toRow == Board.WHITE_BACK_RANK) {
+                        if (tacticalOnly) {
+                            moves.add(Move.of(from, to, flags, PieceType.QUEEN));
+                            continue;
+                        }
+                        for (PieceType promotion : PROMOTIONS) {
+                            moves.add(Move.of(from, to, flags, promotion));
+                        }
+                        continue;
+                    }
+                } else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+                    flags |= Move.CASTLING;
+                }
+                moves.add(Move.of(from, to, flags));
+            }
+        }
+    }
+
+    private long pawnTargets(int from, long occupied) {
+        int forward = us.isWhite() ? -Board.BOARD_SIZE : Board.BOARD_SIZE;
+        long targets = Attacks.pawnAttacks(us, from) & board.getOccupancy(us.opposite());
+        int single = from + forward;
+        if (single >= 0 && single < Board.BOARD_SIZE * Board.BOARD_SIZE && (occupied & (1L << single)) == 0) {
+            targets |= 1L << single;
+            int startRow = us.isWhite() ? Board.WHITE_PAWN_RANK : Board.BLACK_PAWN_RANK;
+            int twoSquares = single + forward;
+            if (from / Board.BOARD_SIZE == startRow && (occupied & (1L << twoSquares)) == 0) {
+                targets |= 1L << twoSquares;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns the en passant target square if the pawn on {@code from} attacks it, or -1.
+     */
+    private int enPassantSquare(int from) {
+        int target = board.enPassantSquare();
+        if (target < 0) {
+            return -1;
+        }
+        // The target must lie on the capturing side's 6th rank (row 2 for white, row 5 for black)
+        int expectedRow = us.isWhite() ? 2 : 5;
+        if (target / Board.BOARD_SIZE != expectedRow || (Attacks.pawnAttacks(us, from) & (1L << target)) == 0) {
+            return -1;
+        }
+        return target;
+    }
+
+    /**
+     * En passant removes two pawns from one rank at once, which can expose the king along
+     * that rank even when neither pawn is pinned on its own, so test the resulting
+     * occupancy directly.
+     */
+    private boolean isLegalEnPassant(int from, int target) {
+        int captured = target + (us.isWhite() ? Board.BOARD_SIZE : -Board.BOARD_SIZE);
+        // Pieces are canonical, so identity comparison is enough
+        if (board.pieceAt(captured) != Piece.of(PieceType.PAWN, us.opposite())) {
+            return false;
+        }
+        if (kingSquare < 0) {
+            return true;
+        }
+        long occupied = (board.getOccupancy() ^ (1L << from) ^ (1L << captured)) | (1L << target);
+        long attackers = board.attackersTo(kingSquare, occupied) & board.getOccupancy(us.opposite());
+        return (attackers & ~(1L << captured)) == 0;
+    }
+
+    private long kingTargets(int from) {
+        PieceColor them = us.opposite();
+        // Remove the king so sliders see through the square it is leaving
+        long occupied = board.getOccupancy() & ~(1L << from);
+        long candidates = Attacks.kingAttacks(from) & ~board.getOccupancy(us);
+        long targets = 0L;
+        while (candidates != 0) {
+            int to = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if ((board.attackersTo(to, occupied) & board.getOccupancy(them)) == 0) {
+                targets |= 1L << to;
+            }
+        }
+        if (checkers == 0 && from == kingSquare) {
+            targets |= castlingTargets(from, true) | castlingTargets(from, false);
+        }
+        return targets;
+    }
+
+    /**
+     * Returns the king's castling destination on one side if castling is legal there.
+     * The king must not be in check (already guaranteed by the caller) and may not pass
+     * through or land on an attacked square.
+     */
+    private long castlingTargets(int from, boolean kingside) {
+        int row = us.isWhite() ? Board.WHITE_BACK_RANK : Board.BLACK_BACK_RANK;
+        if (from != Board.squareIndex(row, Board.KING_START_COLUMN) || !board.hasCastlingRight(us, kingside)) {
+            return 0L;
+        }
+        int rookSquare = Board.squareIndex(row, kingside ? Board.KINGSIDE_ROOK_COLUMN : Board.QUEENSIDE_ROOK_COLUMN);
+        if (board.pieceAt(rookSquare) != Piece.of(PieceType.ROOK, us)) {
+            return 0L;
+        }
+        if ((Attacks.between(from, rookSquare) & board.getOccupancy()) != 0) {
+            return 0L;
+        }
+        int step = kingside ? 1 : -1;
+        long occupied = board.getOccupancy();
+        long theirs = board.getOccupancy(us.opposite());
+        for (int square = from + step; square != from + 3 * step; square += step) {
+            if ((board.attackersTo(square, occupied) & theirs) != 0) {
+                return 0L;
+            }
+        }
+        return 1L << (from + 2 * step);
+    }
+}
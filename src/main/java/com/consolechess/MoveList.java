@@ -0,0 +1,111 @@
+package com.consolechess;
+
+/**
+ * A reusable, fixed-capacity list of {@link Move}-encoded moves backed by an {@code int[]}.
+ *
+ * <p>Move generation writes into a caller-supplied list, so a search can keep one list
+ * per ply and clear it instead of allocating a new collection for every position.
+ * The capacity comfortably exceeds the largest number of legal moves possible in any
+ * chess position (218).</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class MoveList {
+
+    /** Maximum number of moves a list can hold */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    /**
+     * Appends a move to the list.
+     *
+     * @param move the encoded move
+     * @throws ArrayIndexOutOfBoundsException if the list is full
+     */
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns the move at the given index.
+     *
+     * @param index the index (0 to size - 1)
+     * @return the encoded move
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at the given index.
+     *
+     * @param index the index (0 to size - 1)
+     * @param move the encoded move
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Returns the number of moves in the list.
+     *
+     * @return the list size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the list holds no moves.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all moves, keeping the backing array for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Checks whether the list contains a move.
+     *
+     * @param move the encoded move
+     * @return true if present
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the moves in coordinate notation, separated by spaces.
+     *
+     * @return a string such as "e2e4 d2d4"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(Move.toString(moves[i]));
+        }
+        return sb.toString();
+    }
+}
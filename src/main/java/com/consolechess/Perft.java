@@ -0,0 +1,193 @@
+package com.consolechess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Performance test ("perft") for the move generator: counts the leaf nodes of the
+ * legal move tree to a fixed depth.
+ *
+ * <p>Perft serves two purposes. Its node counts for well-known positions are published,
+ * so matching them proves that move generation, make and unmake are correct. Its
+ * nodes-per-second figure tracks move generator speed between releases.</p>
+ *
+ * <p>The "divide" variant reports the count below each root move, which is how a
+ * mismatch against a reference engine is narrowed down. Root moves are independent,
+ * so divide searches each one on its own {@link Board} copy in a {@link ForkJoinPool}.</p>
+ *
+ * <p>Usage: {@code java com.consolechess.Perft <depth> [--threads n] [fen]}</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Perft {
+
+    private Perft() {
+        // Static utility class
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree below the board's current position.
+     * The board is returned to its original position afterwards.
+     *
+     * @param board the board to search (not null)
+     * @param depth the number of plies to search (0 counts the position itself)
+     * @return the number of leaf nodes
+     * @throws IllegalArgumentException if depth is negative
+     */
+    public static long perft(Board board, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative: " + depth);
+        }
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 1; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return search(board, depth, lists);
+    }
+
+    private static long search(Board board, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth];
+        board.generateLegalMoves(moves);
+        // Bulk counting: the legal moves at the last ply are the leaves
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += search(board, depth - 1, lists);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Count leaf nodes separately below each root move, searching root moves in
+     * parallel. The board itself is not modified.
+     *
+     * @param board the board to search (not null)
+     * @param depth the number of plies to search (at least 1)
+     * @param pool the pool to run root moves on (not null)
+     * @return leaf counts keyed by root move in coordinate notation, in generation order
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+    public static Map<String, Long> divide(Board board, int depth, ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1: " + depth);
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+
+        List<RootMoveTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(new RootMoveTask(new Board(board), moves.get(i), depth - 1));
+        }
+        for (RootMoveTask task : tasks) {
+            pool.execute(task);
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (RootMoveTask task : tasks) {
+            counts.put(Move.toString(task.move), task.join());
+        }
+        return counts;
+    }
+
+    /**
+     * Searches the subtree below one root move on a private board copy.
+     */
+    private static final class RootMoveTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(Board board, int move, int depth) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            board.makeMove(move);
+            return perft(board, depth);
+        }
+    }
+
+    /**
+     * Run divide and print each root move's count, the total, the elapsed time and the
+     * throughput in nodes per second.
+     *
+     * @param board the board to search (not null)
+     * @param depth the number of plies to search (at least 1)
+     * @param pool the pool to run root moves on (not null)
+     * @return the total number of leaf nodes
+     */
+    public static long report(Board board, int depth, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Map<String, Long> counts = divide(board, depth, pool);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println();
+        System.out.printf("Moves: %d%n", counts.size());
+        System.out.printf("Nodes: %d%n", total);
+        System.out.printf("Time: %.3f s (%d threads)%n", elapsed / 1e9, pool.getParallelism());
+        System.out.printf("NPS: %d%n", (long) (total * 1e9 / elapsed));
+        return total;
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args {@code <depth> [--threads n] [fen]}; the FEN defaults to the
+     *             starting position and the thread count to the number of processors
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java com.consolechess.Perft <depth> [--threads n] [fen]");
+            return;
+        }
+        try {
+            int depth = Integer.parseInt(args[0]);
+            int threads = Runtime.getRuntime().availableProcessors();
+            StringBuilder fen = new StringBuilder();
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    fen.append(args[i]).append(' ');
+                }
+            }
+
+            Board board = new Board();
+            if (fen.length() > 0) {
+                board.loadFen(fen.toString());
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                report(board, depth, pool);
+            } finally {
+                pool.shutdown();
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.consolechess;
 
-import java.util.Objects;
-
 /**
  * Represents a chess piece with comprehensive display and utility functionality.
  * 
@@ -17,6 +15,11 @@ import java.util.Objects;
  *   <li>Plain text notation (K, k)</li>
  * </ul>
  * 
+ * <p>Pieces are immutable and there are only twelve distinct values, so
+ * {@link #of(PieceType, PieceColor)} hands out cached canonical instances that can be
+ * compared by identity. The public constructor remains for compatibility; pieces it
+ * creates are still equal to the canonical ones.</p>
+ * 
  * @author Console Chess Team
  * @version 1.1
  * @since 1.0
@@ -43,8 +46,26 @@ public class Piece {
         SIMPLE
     }
     
+    /** Number of distinct pieces (6 types x 2 colors) */
+    public static final int COUNT = 12;
+    
+    private static final int TYPE_COUNT = PieceType.values().length;
+    
+    /** Canonical instances indexed by {@link #getIndex()} */
+    private static final Piece[] CANONICAL = new Piece[COUNT];
+    
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                Piece piece = new Piece(type, color);
+                CANONICAL[piece.index] = piece;
+            }
+        }
+    }
+    
     private final PieceType type;
     private final PieceColor color;
+    private final int index;
     
     /**
      * Constructs a Piece with the specified type and color.
@@ -63,6 +84,45 @@ public class Piece {
         
         this.type = type;
         this.color = color;
+        this.index = color.ordinal() * TYPE_COUNT + type.ordinal();
+    }
+    
+    /**
+     * Returns the canonical piece of the given type and color.
+     * 
+     * @param type the type of chess piece (not null)
+     * @param color the color of the piece (not null)
+     * @return the shared Piece instance
+     * @throws IllegalArgumentException if type or color is null
+     */
+    public static Piece of(PieceType type, PieceColor color) {
+        if (type == null) {
+            throw new IllegalArgumentException("Piece type cannot be null");
+        }
+        if (color == null) {
+            throw new IllegalArgumentException("Piece color cannot be null");
+        }
+        return CANONICAL[color.ordinal() * TYPE_COUNT + type.ordinal()];
+    }
+    
+    /**
+     * Returns the canonical piece with the given index.
+     * 
+     * @param index the piece index (0 to {@link #COUNT} - 1)
+     * @return the shared Piece instance
+     */
+    static Piece fromIndex(int index) {
+        return CANONICAL[index];
+    }
+    
+    /**
+     * Returns the index of this piece: {@code color.ordinal() * 6 + type.ordinal()}.
+     * White pieces occupy 0-5 and black pieces 6-11, in {@link PieceType} order.
+     * 
+     * @return the piece index (0 to {@link #COUNT} - 1)
+     */
+    public int getIndex() {
+        return index;
     }
     
     /**
@@ -249,40 +309,40 @@ public class Piece {
      * 
      * @param pieceString the piece type as string (not null)
      * @param color the piece color (not null)
-     * @return a new Piece with the specified type and color
+     * @return the canonical Piece with the specified type and color
      * @throws IllegalArgumentException if arguments are invalid
      */
     public static Piece fromString(String pieceString, PieceColor color) {
         PieceType type = PieceType.fromString(pieceString);
-        return new Piece(type, color);
+        return of(type, color);
     }
     
     /**
-     * Creates a copy of this piece with a different color.
+     * Returns the piece of the same type in a different color.
      * 
      * @param newColor the new color for the piece (not null)
-     * @return a new Piece with the same type but different color
+     * @return the canonical Piece with the same type and the given color
      * @throws IllegalArgumentException if newColor is null
      */
     public Piece withColor(PieceColor newColor) {
         if (newColor == null) {
             throw new IllegalArgumentException("New color cannot be null");
         }
-        return new Piece(this.type, newColor);
+        return of(this.type, newColor);
     }
     
     /**
-     * Creates a copy of this piece with a different type.
+     * Returns the piece of the same color with a different type.
      * 
      * @param newType the new type for the piece (not null)
-     * @return a new Piece with the same color but different type
+     * @return the canonical Piece with the same color and the given type
      * @throws IllegalArgumentException if newType is null
      */
     public Piece withType(PieceType newType) {
         if (newType == null) {
             throw new IllegalArgumentException("New type cannot be null");
         }
-        return new Piece(newType, this.color);
+        return of(newType, this.color);
     }
     
     /**
@@ -295,18 +355,17 @@ public class Piece {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
-        Piece piece = (Piece) obj;
-        return type == piece.type && color == piece.color;
+        return index == ((Piece) obj).index;
     }
     
     /**
      * Generates a hash code based on type and color.
      * 
-     * @return hash code for this piece
+     * @return the piece index, which is unique per type and color
      */
     @Override
     public int hashCode() {
-        return Objects.hash(type, color);
+        return index;
     }
     
     /**
@@ -13,6 +13,10 @@ package com.consolechess;
  *   <li>Columns: 0-7 (0=file a, 7=file h in standard notation)</li>
  * </ul>
  * 
+ * <p>Positions are immutable, so the 64 squares are pre-built once and shared:
+ * {@link #of(int, int)} and {@link #of(int)} return the interned instance instead of
+ * allocating. The public constructor remains for compatibility.</p>
+ * 
  * <p>Examples:</p>
  * <ul>
  *   <li>Position(0, 0) = "a8" (top-left corner)</li>
@@ -35,6 +39,18 @@ public class Position {
     /** Total number of files (columns) on a chess board */
     public static final int BOARD_SIZE = 8;
     
+    /** Total number of squares on a chess board */
+    public static final int SQUARE_COUNT = BOARD_SIZE * BOARD_SIZE;
+    
+    /** Interned instances indexed by {@link #toIndex()} */
+    private static final Position[] SQUARES = new Position[SQUARE_COUNT];
+    
+    static {
+        for (int index = 0; index < SQUARE_COUNT; index++) {
+            SQUARES[index] = new Position(index / BOARD_SIZE, index % BOARD_SIZE);
+        }
+    }
+    
     private final int row;
     private final int column;
     
@@ -51,11 +67,39 @@ public class Position {
         this.column = column;
     }
     
+    /**
+     * Returns the shared Position for the specified coordinates.
+     * 
+     * @param row the row coordinate (0-7, where 0 is rank 8, 7 is rank 1)
+     * @param column the column coordinate (0-7, where 0 is file a, 7 is file h)
+     * @return the interned Position
+     * @throws IllegalArgumentException if coordinates are outside valid range [0-7]
+     */
+    public static Position of(int row, int column) {
+        validateCoordinates(row, column);
+        return SQUARES[row * BOARD_SIZE + column];
+    }
+    
+    /**
+     * Returns the shared Position for a square index ({@code row * 8 + column}).
+     * 
+     * @param index the square index (0-63, where 0 is a8 and 63 is h1)
+     * @return the interned Position
+     * @throws IllegalArgumentException if the index is outside [0-63]
+     */
+    public static Position of(int index) {
+        if (index < 0 || index >= SQUARE_COUNT) {
+            throw new IllegalArgumentException(
+                String.format("Square index must be between 0 and %d, got: %d", SQUARE_COUNT - 1, index));
+        }
+        return SQUARES[index];
+    }
+    
     /**
      * Creates a Position from algebraic notation (e.g., "e4", "a1", "h8").
      * 
      * @param algebraic the algebraic notation string (not null, length 2)
-     * @return a new Position corresponding to the algebraic notation
+     * @return the Position corresponding to the algebraic notation
      * @throws IllegalArgumentException if algebraic notation is invalid
      */
     public static Position fromAlgebraic(String algebraic) {
@@ -77,7 +121,7 @@ public class Position {
         int column = file - 'a';  // a=0, b=1, ..., h=7
         int row = '8' - rank;     // 8=0, 7=1, ..., 1=7
         
-        return new Position(row, column);
+        return of(row, column);
     }
     
     /**
@@ -130,6 +174,15 @@ public class Position {
         return column;
     }
     
+    /**
+     * Returns the square index of this position ({@code row * 8 + column}).
+     * 
+     * @return the square index, where 0 is a8 and 63 is h1
+     */
+    public int toIndex() {
+        return row * BOARD_SIZE + column;
+    }
+    
     /**
      * Returns the rank in chess notation (1-8).
      * 
@@ -240,19 +293,19 @@ public class Position {
     }
     
     /**
-     * Creates a new Position by adding the given offsets to this position.
+     * Returns the Position reached by adding the given offsets to this position.
      * Returns null if the resulting position would be outside the board.
      * 
      * @param rowOffset the row offset to add (can be negative)
      * @param columnOffset the column offset to add (can be negative)
-     * @return a new Position with the offsets applied, or null if invalid
+     * @return the Position with the offsets applied, or null if invalid
      */
     public Position add(int rowOffset, int columnOffset) {
         int newRow = this.row + rowOffset;
         int newColumn = this.column + columnOffset;
         
         if (isValidPosition(newRow, newColumn)) {
-            return new Position(newRow, newColumn);
+            return SQUARES[newRow * BOARD_SIZE + newColumn];
         }
         return null;
     }
@@ -278,7 +331,7 @@ public class Position {
      */
     @Override
     public int hashCode() {
-        return row * BOARD_SIZE + column;
+        return toIndex();
     }
     
     /**
@@ -0,0 +1,70 @@
+package com.consolechess;
+
+/**
+ * A midgame and an endgame score packed into one int, so that evaluation terms can be
+ * added up once instead of twice and blended by the game phase only at the end.
+ *
+ * <p>The endgame score sits in the upper 16 bits and the midgame score in the lower 16,
+ * as {@code (endgame << 16) + midgame}. Plain integer addition, subtraction and
+ * multiplication by a small integer then work on both halves at once, as long as each
+ * half stays within a short's range (about ±32000 centipawns). The midgame half is read
+ * back by sign-extending the low 16 bits; the endgame half by rounding away the borrow
+ * a negative midgame half takes from it.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Score {
+
+    /** The packed score of zero in both phases */
+    public static final int ZERO = 0;
+
+    private Score() {
+        // Static helpers only
+    }
+
+    /**
+     * Packs a midgame and an endgame score.
+     *
+     * @param midgame the midgame score in centipawns
+     * @param endgame the endgame score in centipawns
+     * @return the packed score
+     */
+    public static int make(int midgame, int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    /**
+     * Returns the midgame half of a packed score.
+     *
+     * @param score the packed score
+     * @return the midgame score in centipawns
+     */
+    public static int midgame(int score) {
+        return (short) score;
+    }
+
+    /**
+     * Returns the endgame half of a packed score.
+     *
+     * @param score the packed score
+     * @return the endgame score in centipawns
+     */
+    public static int endgame(int score) {
+        return (short) ((score + 0x8000) >> 16);
+    }
+
+    /**
+     * Blends a packed score by the game phase: all midgame at {@code maxPhase}, all
+     * endgame at 0, linear in between.
+     *
+     * @param score the packed score
+     * @param phase the game phase (0 to maxPhase)
+     * @param maxPhase the phase of the starting position
+     * @return the blended score in centipawns
+     */
+    public static int taper(int score, int phase, int maxPhase) {
+        return (midgame(score) * phase + endgame(score) * (maxPhase - phase)) / maxPhase;
+    }
+}
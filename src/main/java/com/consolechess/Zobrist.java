@@ -0,0 +1,120 @@
+package com.consolechess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of board positions.
+ *
+ * <p>A position's key is the XOR of one key per (piece, square) pair on the board, one
+ * key for the current castling rights, one for the file of the en passant target (if
+ * any) and one more when black is to move. Because XOR is its own inverse, a move
+ * updates the key by XOR-ing out what it removes and XOR-ing in what it adds, so
+ * {@link Board} keeps the key current in constant time per move.</p>
+ *
+ * <p>The pawn key of a position is the XOR of the piece keys of its pawns alone. It only
+ * changes on pawn moves and pawn captures, so it identifies the pawn structure for the
+ * engine's pawn hash table.</p>
+ *
+ * <p>The keys come from a fixed seed so that hashes are reproducible between runs,
+ * which keeps logs and test expectations stable.</p>
+ *
+ * <p>This class is immutable after initialization and therefore thread-safe.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x1F2E3D4C5B6A7988L;
+
+    private static final long[][] PIECE_SQUARE = new long[Piece.COUNT][Board.BOARD_SIZE * Board.BOARD_SIZE];
+    // Same as PIECE_SQUARE for pawns and 0 for every other piece, so updates need no branch
+    private static final long[][] PAWN_SQUARE = new long[Piece.COUNT][Board.BOARD_SIZE * Board.BOARD_SIZE];
+    private static final long[] CASTLING = new long[Board.CASTLE_ALL + 1];
+    private static final long[] EN_PASSANT_FILE = new long[Board.BOARD_SIZE];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        for (PieceColor color : PieceColor.values()) {
+            int pawn = Board.pieceIndex(PieceType.PAWN, color);
+            PAWN_SQUARE[pawn] = PIECE_SQUARE[pawn].clone();
+        }
+        // Each right gets its own key and combinations XOR together, so clearing one right
+        // changes the key the same way whatever the other rights are
+        long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            for (int bit = 0; bit < rightKeys.length; bit++) {
+                if ((rights & (1 << bit)) != 0) {
+                    CASTLING[rights] ^= rightKeys[bit];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+        // Static keys only
+    }
+
+    /**
+     * Returns the key of a piece standing on a square.
+     *
+     * @param piece the piece index ({@link Piece#getIndex()})
+     * @param square the square index (0-63)
+     * @return the key
+     */
+    public static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    /**
+     * Returns the pawn key of a piece standing on a square.
+     *
+     * @param piece the piece index ({@link Piece#getIndex()})
+     * @param square the square index (0-63)
+     * @return the key for a pawn, 0 for any other piece
+     */
+    public static long pawn(int piece, int square) {
+        return PAWN_SQUARE[piece][square];
+    }
+
+    /**
+     * Returns the key of a set of castling rights.
+     *
+     * @param rights a combination of the {@code Board.CASTLE_*} bits
+     * @return the key (0 for no rights)
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * Returns the key of an en passant target square. Only the file matters, since the
+     * rank follows from the side to move.
+     *
+     * @param square the en passant target square index, or -1 for none
+     * @return the key (0 for none)
+     */
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT_FILE[square % Board.BOARD_SIZE];
+    }
+
+    /**
+     * Returns the key XOR-ed in when black is to move.
+     *
+     * @return the side-to-move key
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
@@ -0,0 +1,194 @@
+package com.consolechess.engine;
+
+import com.consolechess.Attacks;
+import com.consolechess.Board;
+import com.consolechess.MagicBitboards;
+import com.consolechess.PieceColor;
+import com.consolechess.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * The attack sets of every piece of one position, computed once per evaluated node and
+ * read by every evaluation term that needs them.
+ *
+ * <p>{@link #compute(Board)} looks up the attacks of each knight, bishop, rook and queen
+ * in {@link Attacks} and {@link MagicBitboards} and records them per piece, so mobility
+ * and king safety can score each piece by its own attacks. It also merges them into the
+ * squares each side attacks with each piece type, at least once and at least twice,
+ * which the mobility and threat terms read without any further lookups. Sliders see
+ * through nothing: their attacks stop at the first piece on each ray, as in move
+ * generation.</p>
+ *
+ * <p>An instance is reused from node to node without allocating, so it is not
+ * thread-safe: every {@link Search} owns one.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class AttackMaps {
+
+    /** Most pieces other than pawns and kings the two sides can have together */
+    static final int MAX_PIECES = 2 * 15;
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+
+    private static final PieceType[] PIECES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    // Per piece other than pawns and kings, White's first, in the order compute() found them
+    private final int[] types = new int[MAX_PIECES];
+    private final long[] pieceAttacks = new long[MAX_PIECES];
+    private final int[] ends = new int[2];
+
+    // Per color (and piece type)
+    private final long[][] attackedBy = new long[2][PIECE_TYPES];
+    private final long[] attacked = new long[2];
+    private final long[] attackedTwice = new long[2];
+    private final long[] kingZones = new long[2];
+
+    /**
+     * Computes the attack sets of a position, replacing those of the previous one.
+     *
+     * @param board the position (not null)
+     */
+    public void compute(Board board) {
+        int count = 0;
+        long occupancy = board.getOccupancy();
+        for (PieceColor color : PieceColor.values()) {
+            int side = color.ordinal();
+            Arrays.fill(attackedBy[side], 0L);
+            attacked[side] = 0L;
+            attackedTwice[side] = 0L;
+
+            long pawns = board.getPieceBitboard(PieceType.PAWN, color);
+            while (pawns != 0) {
+                int square = Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+                add(side, PieceType.PAWN, Attacks.pawnAttacks(color, square));
+            }
+            for (PieceType type : PIECES) {
+                long pieces = board.getPieceBitboard(type, color);
+                // Set-up positions may hold more pieces than a game can; the extra ones are left out
+                while (pieces != 0 && count < MAX_PIECES) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    long attacks = attacks(type, square, occupancy);
+                    types[count] = type.ordinal();
+                    pieceAttacks[count] = attacks;
+                    count++;
+                    add(side, type, attacks);
+                }
+            }
+            int king = board.getKingSquare(color);
+            if (king >= 0) {
+                long kingAttacks = Attacks.kingAttacks(king);
+                add(side, PieceType.KING, kingAttacks);
+                kingZones[side] = kingAttacks | 1L << king;
+            } else {
+                kingZones[side] = 0L;
+            }
+            ends[side] = count;
+        }
+    }
+
+    /**
+     * Returns the index of the first recorded knight, bishop, rook or queen of a side.
+     *
+     * @param color the side (not null)
+     * @return the first piece index
+     */
+    public int begin(PieceColor color) {
+        return color == PieceColor.WHITE ? 0 : ends[PieceColor.WHITE.ordinal()];
+    }
+
+    /**
+     * Returns the index after the last recorded knight, bishop, rook or queen of a side.
+     *
+     * @param color the side (not null)
+     * @return the end piece index
+     */
+    public int end(PieceColor color) {
+        return ends[color.ordinal()];
+    }
+
+    /**
+     * Returns the type of a recorded piece.
+     *
+     * @param index the piece index, from {@link #begin(PieceColor)} to {@link #end(PieceColor)}
+     * @return the {@link PieceType} ordinal
+     */
+    public int type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the squares a recorded piece attacks.
+     *
+     * @param index the piece index
+     * @return bitboard of attacked squares
+     */
+    public long attacks(int index) {
+        return pieceAttacks[index];
+    }
+
+    /**
+     * Returns the squares a side attacks with one piece type.
+     *
+     * @param color the attacking side (not null)
+     * @param type the attacking piece type (not null)
+     * @return bitboard of attacked squares
+     */
+    public long attackedBy(PieceColor color, PieceType type) {
+        return attackedBy[color.ordinal()][type.ordinal()];
+    }
+
+    /**
+     * Returns the squares a side attacks with any piece.
+     *
+     * @param color the attacking side (not null)
+     * @return bitboard of attacked squares
+     */
+    public long attacked(PieceColor color) {
+        return attacked[color.ordinal()];
+    }
+
+    /**
+     * Returns the squares a side attacks with at least two pieces.
+     *
+     * @param color the attacking side (not null)
+     * @return bitboard of doubly attacked squares
+     */
+    public long attackedTwice(PieceColor color) {
+        return attackedTwice[color.ordinal()];
+    }
+
+    /**
+     * Returns the squares around a side's king, including its own.
+     *
+     * @param color the king's side (not null)
+     * @return bitboard of the king zone, or 0 without a king
+     */
+    public long kingZone(PieceColor color) {
+        return kingZones[color.ordinal()];
+    }
+
+    private void add(int side, PieceType type, long attacks) {
+        attackedBy[side][type.ordinal()] |= attacks;
+        attackedTwice[side] |= attacked[side] & attacks;
+        attacked[side] |= attacks;
+    }
+
+    private static long attacks(PieceType type, int square, long occupancy) {
+        switch (type) {
+            case KNIGHT:
+                return Attacks.knightAttacks(square);
+            case BISHOP:
+                return MagicBitboards.bishopAttacks(square, occupancy);
+            case ROOK:
+                return MagicBitboards.rookAttacks(square, occupancy);
+            default:
+                return MagicBitboards.queenAttacks(square, occupancy);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.consolechess.engine;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Measures how the search scales with threads: for each thread count it searches a fixed
+ * set of positions to a fixed depth with a fresh transposition table, and reports the
+ * total time to depth, nodes, nodes per second and both speedups relative to the first
+ * thread count.
+ *
+ * <p>Time-to-depth speedup is what a player notices; nodes-per-second scaling shows how
+ * well the threads use the hardware. With Lazy SMP the second grows faster than the first,
+ * since helper threads search some nodes the main thread would have skipped.</p>
+ *
+ * <p>{@code --game <plies>} instead measures what consecutive searches in one game gain
+ * from each other: the engine plays the given number of plies against itself, once
+ * keeping its tables between moves and once starting every move from scratch on the
+ * same positions.</p>
+ *
+ * <p>{@code --disable} switches off the listed {@link SearchFeature}s, to measure what
+ * each selective technique contributes to time-to-depth.</p>
+ *
+ * <p>Usage: {@code java com.consolechess.engine.Benchmark [depth] [--threads 1,2,4,8,16] [--hash MB]
+ * [--game plies]
+ * [--disable NULL_MOVE,FUTILITY]}</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Benchmark {
+
+    /** Default search depth per position */
+    public static final int DEFAULT_DEPTH = 8;
+
+    /** Default thread counts to compare */
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8, 16};
+
+    /** Opening, middlegame and endgame positions with tactics for the search to resolve */
+    private static final String[] POSITIONS = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+    };
+
+    private Benchmark() {
+        // Command line tool only
+    }
+
+    /**
+     * Searches every benchmark position with the given number of threads.
+     *
+     * @param threads the number of search threads
+     * @param depth the depth to search each position to
+     * @param hashMegabytes the transposition table size
+     * @param disabled the selective techniques to switch off (not null)
+     * @return {elapsed milliseconds, nodes} summed over the positions, then the evaluation
+     *         cache and pawn hash hit rates in hundredths of a percent
+     */
+    public static long[] run(int threads, int depth, int hashMegabytes, Set<SearchFeature> disabled) {
+        long millis = 0;
+        long nodes = 0;
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(hashMegabytes), threads)) {
+            for (SearchFeature feature : disabled) {
+                search.setFeatureEnabled(feature, false);
+            }
+            for (String fen : POSITIONS) {
+                Board board = new Board();
+                board.loadFen(fen);
+                long start = System.nanoTime();
+                SearchResult result = search.search(board, SearchLimits.depth(depth));
+                millis += (System.nanoTime() - start) / 1_000_000;
+                nodes += result.getNodes();
+            }
+            return new long[] {Math.max(1, millis), nodes, Math.round(search.getEvaluationCacheHitRate() * 10_000),
+                Math.round(search.getPawnHashHitRate() * 10_000)};
+        }
+    }
+
+    /**
+     * Lets the engine play a game against itself on one thread, searching every move to
+     * the given depth.
+     *
+     * @param depth the depth to search each move to
+     * @param hashMegabytes the transposition table size
+     * @param reuse whether to keep the tables between moves, rather than start every
+     *              move with {@link ParallelSearch#newGame()}
+     * @param line the moves to play; {@link com.consolechess.Move#NONE} entries are
+     *             filled with the engine's choice, so a second run replays the first
+     * @return {elapsed milliseconds, nodes} summed over the moves
+     */
+    public static long[] runGame(int depth, int hashMegabytes, boolean reuse, int[] line) {
+        long millis = 0;
+        long nodes = 0;
+        Board board = new Board();
+        board.loadFen(POSITIONS[2]);
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(hashMegabytes), 1)) {
+            for (int ply = 0; ply < line.length; ply++) {
+                if (!reuse) {
+                    search.newGame();
+                }
+                long start = System.nanoTime();
+                SearchResult result = search.search(board, SearchLimits.depth(depth));
+                millis += (System.nanoTime() - start) / 1_000_000;
+                nodes += result.getNodes();
+                if (line[ply] == Move.NONE) {
+                    line[ply] = result.getBestMove();
+                }
+                if (line[ply] == Move.NONE) {
+                    break;
+                }
+                board.makeMove(line[ply]);
+            }
+        }
+        return new long[] {Math.max(1, millis), nodes};
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args {@code [depth] [--threads list] [--hash MB] [--disable features]}; the lists are
+     *             comma separated
+     */
+    public static void main(String[] args) {
+        try {
+            int depth = DEFAULT_DEPTH;
+            int[] threadCounts = DEFAULT_THREADS;
+            int hashMegabytes = TranspositionTable.DEFAULT_MEGABYTES;
+            Set<SearchFeature> disabled = EnumSet.noneOf(SearchFeature.class);
+            int gamePlies = 0;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length) {
+                    String[] parts = args[++i].split(",");
+                    threadCounts = new int[parts.length];
+                    for (int j = 0; j < parts.length; j++) {
+                        threadCounts[j] = Integer.parseInt(parts[j].trim());
+                    }
+                } else if (args[i].equals("--hash") && i + 1 < args.length) {
+                    hashMegabytes = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--game") && i + 1 < args.length) {
+                    gamePlies = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--disable") && i + 1 < args.length) {
+                    for (String name : args[++i].split(",")) {
+                        disabled.add(SearchFeature.valueOf(name.trim().toUpperCase()));
+                    }
+                } else {
+                    depth = Integer.parseInt(args[i]);
+                }
+            }
+
+            if (gamePlies > 0) {
+                runGameComparison(depth, gamePlies, hashMegabytes);
+                return;
+            }
+            System.out.printf("Benchmark: %d positions to depth %d, %d MB hash, %d processors%n",
+                POSITIONS.length, depth, hashMegabytes, Runtime.getRuntime().availableProcessors());
+            System.out.printf("Disabled: %s%n%n", disabled.isEmpty() ? "none" : disabled);
+            // One untimed pass lets the JIT compile the search so the first row is not penalised
+            run(threadCounts[0], depth, hashMegabytes, disabled);
+            System.out.printf("%7s %10s %12s %10s %12s %12s %10s %10s%n",
+                "Threads", "Time (ms)", "Nodes", "NPS", "TTD speedup", "NPS scaling", "Eval hits", "Pawn hits");
+            long[] baseline = null;
+            for (int threads : threadCounts) {
+                long[] measured = run(threads, depth, hashMegabytes, disabled);
+                if (baseline == null) {
+                    baseline = measured;
+                }
+                long nps = measured[1] * 1000 / measured[0];
+                long baselineNps = baseline[1] * 1000 / baseline[0];
+                System.out.printf("%7d %10d %12d %10d %11.2fx %11.2fx %9.2f%% %9.2f%%%n", threads, measured[0],
+                    measured[1], nps, (double) baseline[0] / measured[0], (double) nps / Math.max(1, baselineNps),
+                    measured[2] / 100.0, measured[3] / 100.0);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java com.consolechess.engine.Benchmark [depth] [--threads 1,2,4,8,16] [--hash MB] [--game plies]"
+                + " [--disable NULL_MOVE,LATE_MOVE_REDUCTIONS,REVERSE_FUTILITY,FUTILITY,CHECK_EXTENSIONS]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the time and nodes of a self-play game with and without table reuse.
+     */
+    private static void runGameComparison(int depth, int plies, int hashMegabytes) {
+        System.out.printf("Game benchmark: %d plies to depth %d, %d MB hash%n%n", plies, depth, hashMegabytes);
+        // Warm-up, which also picks the moves both measured runs replay
+        int[] line = new int[plies];
+        runGame(depth, hashMegabytes, true, line);
+        long[] fresh = runGame(depth, hashMegabytes, false, line);
+        long[] reused = runGame(depth, hashMegabytes, true, line);
+        System.out.printf("%-16s %10s %12s%n", "Tables", "Time (ms)", "Nodes");
+        System.out.printf("%-16s %10d %12d%n", "new every move", fresh[0], fresh[1]);
+        System.out.printf("%-16s %10d %12d%n", "kept", reused[0], reused[1]);
+        System.out.printf("%nTime-to-depth speedup from reuse: %.2fx%n", (double) fresh[0] / reused[0]);
+    }
+}
@@ -0,0 +1,118 @@
+package com.consolechess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of static evaluations, keyed by the position's Zobrist key
+ * ({@link com.consolechess.Board#getHash()}) and stored in a single {@code long[]}.
+ *
+ * <p>Iterative deepening, re-searches and transpositions evaluate the same positions
+ * again and again; a hit here skips the whole {@link Evaluator}. Each entry packs the
+ * evaluation into its low 16 bits and the upper 48 bits of the key into the rest, so one
+ * array read both checks and answers a lookup. The low bits of the key pick the entry,
+ * so the stored upper bits tell apart the keys that share it. An entry is always replaced
+ * by the newest evaluation.</p>
+ *
+ * <p>The evaluation is stored as {@link Evaluator#evaluate} returns it, from the point of
+ * view of the side to move, which the key includes. A table is not thread-safe: every
+ * {@link Search} owns one.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class EvaluationCache {
+
+    /** Entries of the cache each search owns: 65536, 512 KB */
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    /** Returned by {@link #probe(long)} when the position is not cached */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private static final int SCORE_BITS = 16;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+
+    private final long[] entries;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param entries the number of entries (a power of two, at least 1)
+     * @throws IllegalArgumentException if the size is not a positive power of two
+     */
+    public EvaluationCache(int entries) {
+        if (entries < 1 || Integer.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Evaluation cache size must be a power of two, got: " + entries);
+        }
+        this.entries = new long[entries];
+        this.mask = entries - 1;
+        clear();
+    }
+
+    /**
+     * Returns the number of entries the cache holds.
+     *
+     * @return the entry capacity
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Removes every entry and resets the hit counters.
+     */
+    public void clear() {
+        // An all-ones entry only matches a key whose upper 48 bits are all set, and then
+        // only with the score -1 it also claims; a zero entry would match far likelier keys
+        Arrays.fill(entries, -1L);
+        probes = 0;
+        hits = 0;
+    }
+
+    /**
+     * Looks up the evaluation of a position.
+     *
+     * @param key the position's Zobrist key
+     * @return the evaluation, or {@link #MISS} if the position is not cached
+     */
+    public int probe(long key) {
+        long entry = entries[(int) key & mask];
+        probes++;
+        if (((entry ^ key) & ~SCORE_MASK) == 0) {
+            hits++;
+            return (short) entry;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the evaluation of a position, replacing whatever shares its entry.
+     *
+     * @param key the position's Zobrist key
+     * @param score the evaluation (must fit in 16 bits)
+     */
+    public void store(long key, int score) {
+        entries[(int) key & mask] = (key & ~SCORE_MASK) | (score & SCORE_MASK);
+    }
+
+    /**
+     * Returns the number of lookups since the cache was created or cleared.
+     *
+     * @return the probe count
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of lookups that found their position.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+}
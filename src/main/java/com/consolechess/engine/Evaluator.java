@@ -0,0 +1,417 @@
+package com.consolechess.engine;
+
+import com.consolechess.Attacks;
+import com.consolechess.Board;
+import com.consolechess.PieceColor;
+import com.consolechess.PieceSquareTables;
+import com.consolechess.PieceType;
+import com.consolechess.Score;
+
+/**
+ * Static evaluation of a position for the search.
+ *
+ * <p>Scores are in centipawns from the point of view of the side to move, so the search
+ * can negate them between plies. Every term carries a midgame and an endgame weight,
+ * packed together in one {@link Score}, so the terms are summed once and blended by the
+ * game phase only at the end: from all midgame at {@link PieceSquareTables#MAX_PHASE}
+ * with all pieces on the board to all endgame with only kings and pawns. The terms
+ * are:</p>
+ * <ul>
+ *   <li>material and piece placement from {@link PieceSquareTables}, whose sum the
+ *       {@link Board} keeps up to date move by move together with the phase;</li>
+ *   <li>pawn structure: doubled, isolated and backward pawns, and passed pawns, worth
+ *       more the further they have advanced and far more in the endgame, where nothing
+ *       is left to stop them;</li>
+ *   <li>the pawns sheltering each king;</li>
+ *   <li>how close each king stands to the passed pawns, which decides most endgames;</li>
+ *   <li>mobility: the squares each knight, bishop, rook and queen attacks, other than
+ *       those of its own pieces and those enemy pawns guard, scored by a table per
+ *       piece type;</li>
+ *   <li>king safety: attack units for every attacked square next to the enemy king,
+ *       weighted by the attacking piece type and turned into a score by a table that
+ *       grows steeply once two or more pieces join the attack;</li>
+ *   <li>threats: pieces attacked by enemy pawns, pieces attacked but not defended, and
+ *       pieces attacked twice but defended only once;</li>
+ *   <li>the bishop pair.</li>
+ * </ul>
+ *
+ * <p>The pawn terms depend on the pawns alone, and the shelter on the pawns and kings.
+ * {@link #evaluate(Board, PawnHashTable, AttackMaps)} looks them up in a
+ * {@link PawnHashTable} instead, so a search computes them only for the few pawn
+ * structures it has not seen yet. Mobility, king safety and threats all read the attack
+ * sets of the position from one {@link AttackMaps}, computed once per evaluation.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Evaluator {
+
+    /** Bonus for a passed pawn by rank counted from its own side (index 0 is the first rank) */
+    static final int[] PASSED_PAWN = {
+        Score.ZERO,
+        Score.make(0, 10),
+        Score.make(5, 15),
+        Score.make(10, 25),
+        Score.make(15, 45),
+        Score.make(25, 70),
+        Score.make(40, 110),
+        Score.ZERO,
+    };
+
+    /** Penalty per extra pawn on a file */
+    static final int DOUBLED_PAWN = Score.make(-10, -25);
+
+    /** Penalty for a pawn without friendly pawns on the adjacent files */
+    static final int ISOLATED_PAWN = Score.make(-5, -15);
+
+    /** Penalty for a pawn no friendly pawn can defend whose advance an enemy pawn prevents */
+    static final int BACKWARD_PAWN = Score.make(-8, -10);
+
+    /** Bonus per pawn in front of the king on its own and the adjacent files, up to two ranks ahead */
+    static final int KING_SHIELD = Score.make(12, 0);
+
+    /** Bonus per square the enemy king is further from a passed pawn's stop square, less the own king's */
+    static final int PASSER_KING_DISTANCE = Score.make(0, 4);
+
+    /** Mobility bonus by [PieceType ordinal][squares attacked in the mobility area] */
+    static final int[][] MOBILITY = new int[PieceType.values().length][];
+
+    private static final int[] KNIGHT_MOBILITY_MG = {-31, -26, -6, -2, 2, 6, 11, 14, 16};
+    private static final int[] KNIGHT_MOBILITY_EG = {-40, -28, -15, -8, 2, 6, 8, 10, 12};
+    private static final int[] BISHOP_MOBILITY_MG = {-24, -10, 8, 13, 19, 25, 28, 31, 32, 34, 40, 41, 45, 49};
+    private static final int[] BISHOP_MOBILITY_EG = {-30, -12, -2, 6, 12, 21, 27, 29, 32, 36, 39, 43, 44, 48};
+    private static final int[] ROOK_MOBILITY_MG = {-30, -10, 1, 2, 2, 5, 11, 15, 20, 20, 21, 24, 28, 29, 31};
+    private static final int[] ROOK_MOBILITY_EG = {-39, -9, 12, 20, 35, 49, 52, 60, 67, 70, 79, 82, 84, 85, 86};
+    private static final int[] QUEEN_MOBILITY_MG = {
+        -15, -6, -4, -4, 10, 11, 12, 17, 19, 26, 32, 32, 33, 33,
+         33, 34, 36, 36, 38, 40, 46, 54, 54, 54, 55, 57, 57, 58,
+    };
+    private static final int[] QUEEN_MOBILITY_EG = {
+        -24, -15, -4, 10, 20, 27, 30, 38, 39, 48, 48, 50, 60, 63,
+         66, 67, 68, 70, 74, 75, 76, 84, 84, 86, 91, 91, 96, 110,
+    };
+
+    /** King attack units per attacked square next to the enemy king, by PieceType ordinal */
+    static final int[] KING_ATTACK_WEIGHT = {0, 3, 2, 2, 5, 0};
+
+    /** Pieces that must join a king attack before it is scored */
+    static final int KING_ATTACKERS_NEEDED = 2;
+
+    /** King safety bonus for the attacking side by attack units; flat from the last entry on */
+    static final int[] KING_DANGER = new int[100];
+
+    private static final int[] KING_DANGER_MG = {
+          0,   0,   1,   2,   3,   5,   7,   9,  12,  15,
+         18,  22,  26,  30,  35,  39,  44,  50,  56,  62,
+         68,  75,  82,  85,  89,  97, 105, 113, 122, 131,
+        140, 150, 169, 180, 191, 202, 213, 225, 237, 248,
+        260, 272, 283, 295, 307, 319, 330, 342, 354, 366,
+        377, 389, 401, 412, 424, 436, 448, 459, 471, 483,
+        494, 500,
+    };
+
+    /** Bonus for attacking a knight, bishop, rook or queen with a pawn */
+    static final int THREAT_BY_PAWN = Score.make(40, 30);
+
+    /** Bonus for attacking a knight, bishop, rook or queen that nothing defends */
+    static final int HANGING_PIECE = Score.make(30, 15);
+
+    /** Bonus for attacking a knight, bishop, rook or queen twice that only one piece defends */
+    static final int UNDERDEFENDED_PIECE = Score.make(20, 10);
+
+    /** Bonus for holding two or more bishops */
+    static final int BISHOP_PAIR = Score.make(30, 50);
+
+    private static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+
+    // Squares in front of a pawn, on its own and the adjacent files, indexed by color and square
+    private static final long[][] PASSED_MASKS = new long[2][SQUARES];
+    // Squares on the adjacent files level with or behind a pawn, where its defenders stand
+    private static final long[][] SUPPORT_MASKS = new long[2][SQUARES];
+    // Squares up to two ranks in front of a king on its own and the adjacent files
+    private static final long[][] SHIELD_MASKS = new long[2][SQUARES];
+    private static final long[] FILE_MASKS = new long[Board.BOARD_SIZE];
+    private static final long[] ADJACENT_FILE_MASKS = new long[Board.BOARD_SIZE];
+
+    static {
+        MOBILITY[PieceType.KNIGHT.ordinal()] = pack(KNIGHT_MOBILITY_MG, KNIGHT_MOBILITY_EG);
+        MOBILITY[PieceType.BISHOP.ordinal()] = pack(BISHOP_MOBILITY_MG, BISHOP_MOBILITY_EG);
+        MOBILITY[PieceType.ROOK.ordinal()] = pack(ROOK_MOBILITY_MG, ROOK_MOBILITY_EG);
+        MOBILITY[PieceType.QUEEN.ordinal()] = pack(QUEEN_MOBILITY_MG, QUEEN_MOBILITY_EG);
+        for (int units = 0; units < KING_DANGER.length; units++) {
+            // A king attack wins the game in the midgame and matters much less without queens
+            int danger = KING_DANGER_MG[Math.min(units, KING_DANGER_MG.length - 1)];
+            KING_DANGER[units] = Score.make(danger, danger / 4);
+        }
+        for (int square = 0; square < SQUARES; square++) {
+            int row = square / Board.BOARD_SIZE;
+            int column = square % Board.BOARD_SIZE;
+            for (int other = 0; other < SQUARES; other++) {
+                int otherRow = other / Board.BOARD_SIZE;
+                int otherColumn = other % Board.BOARD_SIZE;
+                int fileDistance = Math.abs(otherColumn - column);
+                if (fileDistance == 0) {
+                    FILE_MASKS[column] |= 1L << other;
+                } else if (fileDistance == 1) {
+                    ADJACENT_FILE_MASKS[column] |= 1L << other;
+                    if (otherRow >= row) {
+                        SUPPORT_MASKS[PieceColor.WHITE.ordinal()][square] |= 1L << other;
+                    }
+                    if (otherRow <= row) {
+                        SUPPORT_MASKS[PieceColor.BLACK.ordinal()][square] |= 1L << other;
+                    }
+                }
+                if (fileDistance > 1) {
+                    continue;
+                }
+                // White pawns advance towards row 0, black pawns towards row 7
+                if (otherRow < row) {
+                    PASSED_MASKS[PieceColor.WHITE.ordinal()][square] |= 1L << other;
+                    if (otherRow >= row - 2) {
+                        SHIELD_MASKS[PieceColor.WHITE.ordinal()][square] |= 1L << other;
+                    }
+                } else if (otherRow > row) {
+                    PASSED_MASKS[PieceColor.BLACK.ordinal()][square] |= 1L << other;
+                    if (otherRow <= row + 2) {
+                        SHIELD_MASKS[PieceColor.BLACK.ordinal()][square] |= 1L << other;
+                    }
+                }
+            }
+        }
+    }
+
+    private Evaluator() {
+        // Static evaluation functions only
+    }
+
+    /**
+     * Evaluates the position for the side to move, computing every term from scratch.
+     *
+     * @param board the position to evaluate (not null)
+     * @return the score in centipawns; positive is good for the side to move
+     */
+    public static int evaluate(Board board) {
+        AttackMaps attacks = new AttackMaps();
+        attacks.compute(board);
+        long passed = passedPawns(board);
+        return evaluate(board, pawnStructure(board, passed) + kingShields(board), passed, attacks);
+    }
+
+    /**
+     * Evaluates the position for the side to move, taking the pawn structure and king
+     * shelter terms from the given table and storing them there when missing.
+     *
+     * @param board the position to evaluate (not null)
+     * @param pawnTable the pawn hash table of the calling search (not null)
+     * @param attacks the attack maps of the calling search, overwritten with those of
+     *                this position (not null)
+     * @return the score in centipawns; positive is good for the side to move
+     */
+    public static int evaluate(Board board, PawnHashTable pawnTable, AttackMaps attacks) {
+        long pawnKey = board.getPawnHash();
+        int entry = pawnTable.probe(pawnKey);
+        if (entry < 0) {
+            long passed = passedPawns(board);
+            entry = pawnTable.store(pawnKey, pawnStructure(board, passed), passed);
+        }
+        int kings = PawnHashTable.kings(board.getKingSquare(PieceColor.WHITE), board.getKingSquare(PieceColor.BLACK));
+        if (!pawnTable.hasShield(entry, kings)) {
+            pawnTable.storeShield(entry, kings, kingShields(board));
+        }
+        attacks.compute(board);
+        return evaluate(board, pawnTable.structure(entry) + pawnTable.shield(entry),
+            pawnTable.passedPawns(entry), attacks);
+    }
+
+    /**
+     * Returns the game phase, which the board counts from the pieces other than kings
+     * and pawns.
+     *
+     * @param board the position (not null)
+     * @return {@link PieceSquareTables#MAX_PHASE} in the opening down to 0 in a pawn endgame
+     */
+    public static int phase(Board board) {
+        // Promotions can push the count past the starting position
+        return Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+    }
+
+    /**
+     * Returns true if no enemy pawn stands in front of a pawn on its own or an adjacent file.
+     *
+     * @param board the position (not null)
+     * @param square the square of the pawn (0-63)
+     * @param color the color of the pawn (not null)
+     * @return true if the pawn is passed
+     */
+    public static boolean isPassedPawn(Board board, int square, PieceColor color) {
+        long enemyPawns = board.getPieceBitboard(PieceType.PAWN, color.opposite());
+        return (PASSED_MASKS[color.ordinal()][square] & enemyPawns) == 0;
+    }
+
+    /**
+     * Adds the terms that depend on more than the pawns to the given pawn terms and
+     * blends the total by the game phase. The attack maps must hold the position's attacks.
+     */
+    private static int evaluate(Board board, int pawnTerms, long passed, AttackMaps attacks) {
+        int packed = board.getPsqScore() + pawnTerms
+                   + evaluatePieces(board, PieceColor.WHITE, passed, attacks)
+                   - evaluatePieces(board, PieceColor.BLACK, passed, attacks);
+        int score = Score.taper(packed, phase(board), PieceSquareTables.MAX_PHASE);
+        return board.getSideToMove() == PieceColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Returns the passed pawns of both colors.
+     */
+    static long passedPawns(Board board) {
+        long passed = 0L;
+        for (PieceColor color : PieceColor.values()) {
+            long enemyPawns = board.getPieceBitboard(PieceType.PAWN, color.opposite());
+            long[] passedMasks = PASSED_MASKS[color.ordinal()];
+            long pawns = board.getPieceBitboard(PieceType.PAWN, color);
+            while (pawns != 0) {
+                int square = Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+                if ((passedMasks[square] & enemyPawns) == 0) {
+                    passed |= 1L << square;
+                }
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Returns the packed pawn structure score from White's point of view.
+     */
+    static int pawnStructure(Board board, long passed) {
+        return pawnStructure(board, PieceColor.WHITE, passed) - pawnStructure(board, PieceColor.BLACK, passed);
+    }
+
+    private static int pawnStructure(Board board, PieceColor color, long passed) {
+        int score = Score.ZERO;
+        long ownPawns = board.getPieceBitboard(PieceType.PAWN, color);
+        long enemyPawns = board.getPieceBitboard(PieceType.PAWN, color.opposite());
+        for (int file = 0; file < Board.BOARD_SIZE; file++) {
+            score += DOUBLED_PAWN * Math.max(Long.bitCount(ownPawns & FILE_MASKS[file]) - 1, 0);
+        }
+        // Relative rank is 7 - row for White and row for Black; a pawn's stop square is one row ahead
+        int rankFlip = color == PieceColor.WHITE ? Board.BOARD_SIZE - 1 : 0;
+        int forward = color == PieceColor.WHITE ? -Board.BOARD_SIZE : Board.BOARD_SIZE;
+        long pawns = ownPawns;
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            // Set-up positions may hold a pawn on its last rank, which has no stop square
+            int stop = square + forward;
+            if ((ownPawns & ADJACENT_FILE_MASKS[square % Board.BOARD_SIZE]) == 0) {
+                score += ISOLATED_PAWN;
+            } else if ((ownPawns & SUPPORT_MASKS[color.ordinal()][square]) == 0 && stop >= 0 && stop < SQUARES
+                    && (Attacks.pawnAttacks(color, stop) & enemyPawns) != 0) {
+                score += BACKWARD_PAWN;
+            }
+            if ((passed & 1L << square) != 0) {
+                score += PASSED_PAWN[Math.abs(rankFlip - square / Board.BOARD_SIZE)];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the packed king shelter score from White's point of view.
+     */
+    static int kingShields(Board board) {
+        return kingShield(board, PieceColor.WHITE) - kingShield(board, PieceColor.BLACK);
+    }
+
+    private static int kingShield(Board board, PieceColor color) {
+        int king = board.getKingSquare(color);
+        if (king < 0) {
+            return Score.ZERO;
+        }
+        long pawns = board.getPieceBitboard(PieceType.PAWN, color);
+        return KING_SHIELD * Long.bitCount(SHIELD_MASKS[color.ordinal()][king] & pawns);
+    }
+
+    /**
+     * Returns the packed mobility and king attack score of one side, in one pass over the
+     * attacks of its pieces.
+     */
+    static int mobilityAndKingAttack(Board board, PieceColor color, AttackMaps attacks) {
+        PieceColor enemy = color.opposite();
+        // Squares worth moving to: not taken by an own piece nor guarded by an enemy pawn
+        long mobilityArea = ~(board.getOccupancy(color) | attacks.attackedBy(enemy, PieceType.PAWN));
+        long enemyKingZone = attacks.kingZone(enemy);
+        int score = Score.ZERO;
+        int attackUnits = 0;
+        int kingAttackers = 0;
+        for (int i = attacks.begin(color); i < attacks.end(color); i++) {
+            int type = attacks.type(i);
+            long pieceAttacks = attacks.attacks(i);
+            score += MOBILITY[type][Long.bitCount(pieceAttacks & mobilityArea)];
+            int kingSquaresHit = Long.bitCount(pieceAttacks & enemyKingZone);
+            attackUnits += KING_ATTACK_WEIGHT[type] * kingSquaresHit;
+            kingAttackers += Math.min(kingSquaresHit, 1);
+        }
+        int danger = KING_DANGER[Math.min(attackUnits, KING_DANGER.length - 1)];
+        return score + danger * Math.min(kingAttackers / KING_ATTACKERS_NEEDED, 1);
+    }
+
+    /**
+     * Returns the packed threat score of one side: enemy pieces it attacks with pawns,
+     * enemy pieces it attacks that nothing defends, and enemy pieces it attacks twice
+     * that only one piece defends.
+     */
+    static int threats(Board board, PieceColor color, AttackMaps attacks) {
+        PieceColor enemy = color.opposite();
+        long enemyPieces = board.getOccupancy(enemy)
+                         & ~board.getPieceBitboard(PieceType.PAWN, enemy)
+                         & ~board.getPieceBitboard(PieceType.KING, enemy);
+        long attackedByPawns = enemyPieces & attacks.attackedBy(color, PieceType.PAWN);
+        long hanging = enemyPieces & attacks.attacked(color) & ~attacks.attacked(enemy);
+        long underdefended = enemyPieces & attacks.attackedTwice(color)
+                           & attacks.attacked(enemy) & ~attacks.attackedTwice(enemy);
+        return THREAT_BY_PAWN * Long.bitCount(attackedByPawns) + HANGING_PIECE * Long.bitCount(hanging)
+             + UNDERDEFENDED_PIECE * Long.bitCount(underdefended);
+    }
+
+    /**
+     * Sums the packed terms of one side that depend on its pieces.
+     */
+    private static int evaluatePieces(Board board, PieceColor color, long passed, AttackMaps attacks) {
+        int score = mobilityAndKingAttack(board, color, attacks) + threats(board, color, attacks);
+        int ownKing = board.getKingSquare(color);
+        int enemyKing = board.getKingSquare(color.opposite());
+        if (ownKing >= 0 && enemyKing >= 0) {
+            int forward = color == PieceColor.WHITE ? -Board.BOARD_SIZE : Board.BOARD_SIZE;
+            long pawns = passed & board.getPieceBitboard(PieceType.PAWN, color);
+            while (pawns != 0) {
+                int stop = Math.max(0, Math.min(SQUARES - 1, Long.numberOfTrailingZeros(pawns) + forward));
+                pawns &= pawns - 1;
+                score += PASSER_KING_DISTANCE * (distance(enemyKing, stop) - distance(ownKing, stop));
+            }
+        }
+        long bishops = board.getPieceBitboard(PieceType.BISHOP, color);
+        score += BISHOP_PAIR * Math.min(Long.bitCount(bishops) >> 1, 1);
+        return score;
+    }
+
+    /**
+     * Packs a midgame and an endgame table into one table of {@link Score}s.
+     */
+    private static int[] pack(int[] midgame, int[] endgame) {
+        int[] packed = new int[midgame.length];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = Score.make(midgame[i], endgame[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Returns the number of king moves between two squares.
+     */
+    private static int distance(int from, int to) {
+        return Math.max(Math.abs(from / Board.BOARD_SIZE - to / Board.BOARD_SIZE),
+                        Math.abs(from % Board.BOARD_SIZE - to % Board.BOARD_SIZE));
+    }
+}
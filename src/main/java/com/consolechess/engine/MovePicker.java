@@ -0,0 +1,276 @@
+package com.consolechess.engine;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import com.consolechess.MoveList;
+import com.consolechess.PieceSquareTables;
+import com.consolechess.PieceType;
+
+/**
+ * Hands out the legal moves of one search node in stages, best candidates first, so that
+ * a beta cutoff usually happens before the rest of the moves are even scored.
+ *
+ * <ol>
+ *   <li>the transposition table move, checked for legality without generating moves</li>
+ *   <li>captures and queen promotions that do not lose material, by MVV-LVA</li>
+ *   <li>the two killer moves of the ply</li>
+ *   <li>the counter-move to the opponent's last move</li>
+ *   <li>the remaining quiet moves, by butterfly history score, then under-promotions</li>
+ *   <li>captures that lose material by static exchange</li>
+ * </ol>
+ *
+ * <p>Every move is returned exactly once. Scores live in a primitive array next to the
+ * move list and moves are selected in place, so picking allocates nothing. The search
+ * keeps one picker per ply and re-initialises it at every node.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+final class MovePicker {
+
+    private static final int STAGE_TT_MOVE = 0;
+    private static final int STAGE_GENERATE = 1;
+    private static final int STAGE_GOOD_CAPTURES = 2;
+    private static final int STAGE_KILLERS = 3;
+    private static final int STAGE_COUNTER_MOVE = 4;
+    private static final int STAGE_SCORE_QUIETS = 5;
+    private static final int STAGE_QUIETS = 6;
+    private static final int STAGE_BAD_CAPTURES = 7;
+    private static final int STAGE_DONE = 8;
+
+    /** Attacker rank of the king in MVV-LVA, above a queen's 9 */
+    private static final int KING_ATTACKER_RANK = 10;
+
+    private final MoveList moves = new MoveList();
+    private final int[] scores = new int[MoveList.CAPACITY];
+    private final int[] badCaptures = new int[MoveList.CAPACITY];
+    private final StaticExchange exchange;
+
+    private Board board;
+    private int[][][] history;
+    private int stage;
+    private int ttMove;
+    private int killer1;
+    private int killer2;
+    private int counterMove;
+    private int killerIndex;
+    private int badCaptureCount;
+    private int badCaptureIndex;
+    /** Number of generated moves, not counting the TT move */
+    private int count;
+    /** Moves before this index have been returned; the rest are still to pick from */
+    private int next;
+    /** End of the tactical moves, which the generate stage gathers at the front of the list */
+    private int captureEnd;
+
+    /**
+     * Creates a picker.
+     *
+     * @param exchange the static exchange evaluator that sorts out losing captures (not null)
+     */
+    MovePicker(StaticExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Prepares the picker for a new node.
+     *
+     * @param board the position (not null)
+     * @param ttMove the transposition table move, or {@link Move#NONE}
+     * @param killer1 the first killer move of this ply, or {@link Move#NONE}
+     * @param killer2 the second killer move of this ply, or {@link Move#NONE}
+     * @param counterMove the stored reply to the opponent's last move, or {@link Move#NONE}
+     * @param history the butterfly history table, indexed [color][from][to]
+     */
+    void init(Board board, int ttMove, int killer1, int killer2, int counterMove, int[][][] history) {
+        this.board = board;
+        this.ttMove = ttMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.counterMove = counterMove == killer1 || counterMove == killer2 ? Move.NONE : counterMove;
+        this.history = history;
+        this.stage = STAGE_TT_MOVE;
+        this.killerIndex = 0;
+        this.badCaptureCount = 0;
+        this.badCaptureIndex = 0;
+    }
+
+    /**
+     * Returns the next move to search.
+     *
+     * @return the next legal move, or {@link Move#NONE} when all moves have been returned
+     */
+    int next() {
+        switch (stage) {
+            case STAGE_TT_MOVE:
+                stage = STAGE_GENERATE;
+                if (ttMove != Move.NONE && board.isLegalMove(ttMove)) {
+                    return ttMove;
+                }
+                ttMove = Move.NONE;
+                // fall through
+            case STAGE_GENERATE:
+                generate();
+                stage = STAGE_GOOD_CAPTURES;
+                // fall through
+            case STAGE_GOOD_CAPTURES:
+                while (next < captureEnd) {
+                    int move = pickBest(captureEnd);
+                    if (Move.isCapture(move) && !exchange.isNonLosing(board, move)) {
+                        badCaptures[badCaptureCount++] = move;
+                        continue;
+                    }
+                    return move;
+                }
+                stage = STAGE_KILLERS;
+                // fall through
+            case STAGE_KILLERS:
+                while (killerIndex < 2) {
+                    int killer = killerIndex++ == 0 ? killer1 : killer2;
+                    if (takeQuiet(killer)) {
+                        return killer;
+                    }
+                }
+                stage = STAGE_COUNTER_MOVE;
+                // fall through
+            case STAGE_COUNTER_MOVE:
+                stage = STAGE_SCORE_QUIETS;
+                if (takeQuiet(counterMove)) {
+                    return counterMove;
+                }
+                // fall through
+            case STAGE_SCORE_QUIETS:
+                scoreQuiets();
+                stage = STAGE_QUIETS;
+                // fall through
+            case STAGE_QUIETS:
+                if (next < count) {
+                    return pickBest(count);
+                }
+                stage = STAGE_BAD_CAPTURES;
+                // fall through
+            case STAGE_BAD_CAPTURES:
+                if (badCaptureIndex < badCaptureCount) {
+                    return badCaptures[badCaptureIndex++];
+                }
+                stage = STAGE_DONE;
+                // fall through
+            default:
+                return Move.NONE;
+        }
+    }
+
+    /**
+     * Returns true for a move that is neither a capture nor a promotion. Only quiet
+     * moves are recorded as killers, counter-moves and in the history table.
+     */
+    static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && !Move.isPromotion(move);
+    }
+
+    /**
+     * Generates all legal moves without the TT move and puts the tactical ones (captures
+     * and queen promotions) in front, scored by MVV-LVA.
+     */
+    private void generate() {
+        board.generateLegalMoves(moves);
+        count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move != ttMove) {
+                moves.set(count++, move);
+            }
+        }
+
+        next = 0;
+        captureEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            PieceType promotion = Move.promotion(move);
+            if (promotion == PieceType.QUEEN || (promotion == null && Move.isCapture(move))) {
+                int score = mvvLva(board, move);
+                swap(i, captureEnd);
+                scores[captureEnd++] = score;
+            }
+        }
+    }
+
+    /**
+     * Removes a killer or counter-move from the quiet moves and reports whether it was
+     * there, which also proves that it is legal here.
+     */
+    private boolean takeQuiet(int move) {
+        if (move == Move.NONE || move == ttMove || !isQuiet(move)) {
+            return false;
+        }
+        for (int i = next; i < count; i++) {
+            if (moves.get(i) == move) {
+                swap(i, next++);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scores the remaining moves: quiet moves by history, under-promotions last.
+     */
+    private void scoreQuiets() {
+        int color = board.getSideToMove().ordinal();
+        for (int i = next; i < count; i++) {
+            int move = moves.get(i);
+            scores[i] = Move.isPromotion(move)
+                ? Integer.MIN_VALUE
+                : history[color][Move.from(move)][Move.to(move)];
+        }
+    }
+
+    /**
+     * Selection step: swaps the highest scored of the remaining moves below {@code end}
+     * to the front and returns it.
+     */
+    private int pickBest(int end) {
+        int best = next;
+        for (int i = next + 1; i < end; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        swap(best, next);
+        return moves.get(next++);
+    }
+
+    private void swap(int i, int j) {
+        int move = moves.get(i);
+        moves.set(i, moves.get(j));
+        moves.set(j, move);
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    /**
+     * Most valuable victim, least valuable attacker: captures of bigger pieces first and,
+     * among those, captures with smaller pieces first. A queen promotion counts as
+     * winning a queen.
+     *
+     * @param board the position before the move (not null)
+     * @param move a capture or promotion
+     * @return the sort key; higher is searched first
+     */
+    static int mvvLva(Board board, int move) {
+        int victim = 0;
+        if (Move.isEnPassant(move)) {
+            victim = PieceSquareTables.materialValue(PieceType.PAWN);
+        } else if (Move.isCapture(move)) {
+            victim = PieceSquareTables.materialValue(board.pieceAt(Move.to(move)).getType());
+        }
+        if (Move.isPromotion(move)) {
+            victim += PieceSquareTables.materialValue(Move.promotion(move));
+        }
+        PieceType attacker = board.pieceAt(Move.from(move)).getType();
+        int attackerRank = attacker == PieceType.KING ? KING_ATTACKER_RANK : PieceSquareTables.materialValue(attacker) / 100;
+        return victim * 16 - attackerRank;
+    }
+}
@@ -0,0 +1,274 @@
+package com.consolechess.engine;
+
+import com.consolechess.Board;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Multi-threaded search using Lazy SMP: every thread runs its own {@link Search} on a
+ * private copy of the board from the same root, and the threads cooperate only through
+ * the shared, lock-free {@link TranspositionTable}.
+ *
+ * <p>The calling thread runs the main search, which honours the limits and reports
+ * iterations. Helper threads search up to the same depth without node or time limits,
+ * half of them one iteration ahead, and are stopped as soon as the main search
+ * finishes. Their table entries let the main search cut off subtrees it would otherwise
+ * have to search itself, and a helper that completed a deeper iteration than the main
+ * search supplies the result.</p>
+ *
+ * <p>{@link #search} runs the main search on the calling thread; {@link #start} runs it
+ * in the background, which is how the game ponders on the opponent's time. Threads are
+ * created once and reused for every search; call {@link #close()} to release them. With
+ * one thread this is just a {@link Search}.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    /** Largest accepted number of search threads */
+    public static final int MAX_THREADS = 256;
+
+    private final TranspositionTable transpositionTable;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a search running on the given number of threads.
+     *
+     * @param transpositionTable the table shared by all threads (not null)
+     * @param threads the number of threads, including the calling one (1 to {@link #MAX_THREADS})
+     * @throws IllegalArgumentException if threads is out of range
+     */
+    public ParallelSearch(TranspositionTable transpositionTable, int threads) {
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException(
+                "Thread count must be between 1 and " + MAX_THREADS + ", got: " + threads);
+        }
+        this.transpositionTable = transpositionTable;
+        this.main = new Search(transpositionTable);
+        this.helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(transpositionTable);
+        }
+        // One thread per helper, plus one for a main search run in the background
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the number of search threads, including the calling one.
+     *
+     * @return the thread count
+     */
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Returns the share of pawn hash lookups that found their pawn structure, over all
+     * threads and all searches so far. Call while no search is running.
+     *
+     * @return the hit rate between 0 and 1, or 0 before the first evaluation
+     */
+    public double getPawnHashHitRate() {
+        long probes = main.getPawnTable().getProbes();
+        long hits = main.getPawnTable().getHits();
+        for (Search helper : helpers) {
+            probes += helper.getPawnTable().getProbes();
+            hits += helper.getPawnTable().getHits();
+        }
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    /**
+     * Returns the share of evaluation cache lookups that found their position, over all
+     * threads and all searches so far. Call while no search is running.
+     *
+     * @return the hit rate between 0 and 1, or 0 before the first evaluation
+     */
+    public double getEvaluationCacheHitRate() {
+        long probes = main.getEvaluationCache().getProbes();
+        long hits = main.getEvaluationCache().getHits();
+        for (Search helper : helpers) {
+            probes += helper.getEvaluationCache().getProbes();
+            hits += helper.getEvaluationCache().getHits();
+        }
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    /**
+     * Enables or disables a selective search technique on every thread. Takes effect
+     * from the next search.
+     *
+     * @param feature the technique (not null)
+     * @param enabled whether to use it
+     */
+    public void setFeatureEnabled(SearchFeature feature, boolean enabled) {
+        main.setFeatureEnabled(feature, enabled);
+        for (Search helper : helpers) {
+            helper.setFeatureEnabled(feature, enabled);
+        }
+    }
+
+    /**
+     * Searches the position for the best move of the side to move.
+     *
+     * @param position the position to search (not null; not modified)
+     * @param limits when to stop (not null)
+     * @return the result of the deepest completed iteration of any thread
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        return search(position, limits, null);
+    }
+
+    /**
+     * Searches the position for the best move of the side to move, reporting every
+     * iteration completed by the main thread with the node count of all threads.
+     *
+     * @param position the position to search (not null; not modified until this returns)
+     * @param limits when to stop (not null)
+     * @param listener called with the result of each completed iteration, or null
+     * @return the result of the deepest completed iteration of any thread
+     * @throws IllegalStateException if the search has been closed
+     */
+    public SearchResult search(Board position, SearchLimits limits, Consumer<SearchResult> listener) {
+        Future<SearchResult>[] futures = begin(position, limits);
+        return finish(position, limits, listener, futures);
+    }
+
+    /**
+     * Starts searching the position in the background and returns at once. Only one
+     * search may run at a time: {@link #stop()} it and wait for its result before
+     * starting another. A ponder search ({@link SearchLimits#withPonder(boolean)}) runs
+     * until {@link #stop()} or {@link #ponderHit()}.
+     *
+     * @param position the position to search (not null; copied, so it may be changed afterwards)
+     * @param limits when to stop (not null)
+     * @param listener called on the search thread with each completed iteration, or null
+     * @return the result of the deepest completed iteration of any thread, once done
+     * @throws IllegalStateException if the search has been closed
+     */
+    public Future<SearchResult> start(Board position, SearchLimits limits, Consumer<SearchResult> listener) {
+        Board root = new Board(position);
+        Future<SearchResult>[] futures = begin(root, limits);
+        return executor.submit(() -> finish(root, limits, listener, futures));
+    }
+
+    /**
+     * Turns a running ponder search into the real search, whose time limits count from
+     * now. Safe to call from any thread.
+     */
+    public void ponderHit() {
+        main.ponderHit();
+    }
+
+    /**
+     * Prepares every thread for a new search and starts the helpers.
+     */
+    private Future<SearchResult>[] begin(Board position, SearchLimits limits) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Search has been closed");
+        }
+        transpositionTable.newSearch();
+        main.prepare(limits);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Future<SearchResult>[] futures = new Future[helpers.length];
+        // Helpers keep the depth limit but run until the main search stops them
+        SearchLimits helperLimits = SearchLimits.depth(limits.getDepth());
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            int threadIndex = i + 1;
+            helper.prepare(helperLimits);
+            futures[i] = executor.submit(() -> helper.run(position, helperLimits, null, threadIndex));
+        }
+        return futures;
+    }
+
+    /**
+     * Runs the main search on the current thread, then stops the helpers and combines
+     * the results.
+     */
+    private SearchResult finish(Board position, SearchLimits limits, Consumer<SearchResult> listener,
+                                Future<SearchResult>[] futures) {
+        Consumer<SearchResult> reporter = listener == null ? null : iteration -> listener.accept(
+            withNodes(iteration, iteration.getNodes() + helperNodes()));
+        SearchResult best;
+        try {
+            best = main.run(position, limits, reporter, 0);
+        } finally {
+            for (Search helper : helpers) {
+                helper.stop();
+            }
+        }
+
+        long nodes = best.getNodes();
+        for (Future<SearchResult> future : futures) {
+            SearchResult result = join(future);
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+        return withNodes(best, nodes);
+    }
+
+    /**
+     * Forgets everything learned in earlier searches, including the transposition
+     * table. Call between games, while no search is running.
+     */
+    public void newGame() {
+        transpositionTable.clear();
+        main.newGame();
+        for (Search helper : helpers) {
+            helper.newGame();
+        }
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Safe to call from any thread.
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private long helperNodes() {
+        long nodes = 0;
+        for (Search helper : helpers) {
+            nodes += helper.getNodes();
+        }
+        return nodes;
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search threads", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    private static SearchResult withNodes(SearchResult result, long nodes) {
+        return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(),
+            nodes, result.getTimeMillis());
+    }
+}
@@ -0,0 +1,201 @@
+package com.consolechess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of pawn structure evaluations, keyed by the board's pawn key
+ * ({@link com.consolechess.Board#getPawnHash()}) and stored in parallel primitive arrays
+ * with no per-entry objects.
+ *
+ * <p>The pawn structure only changes on pawn moves and captures of pawns, so nearly every
+ * node of a search shares its structure with a node evaluated before it. Each entry holds:</p>
+ * <ul>
+ *   <li>the pawn key, to detect collisions;</li>
+ *   <li>the packed {@link com.consolechess.Score} of the structure from White's point of
+ *       view: doubled, isolated, backward and passed pawns;</li>
+ *   <li>the bitboard of passed pawns of both colors, for terms that also depend on the
+ *       other pieces;</li>
+ *   <li>the king shield score, which also depends on where the kings stand, together with
+ *       the king squares it was computed for. It is recomputed when a king has moved
+ *       without throwing away the rest of the entry.</li>
+ * </ul>
+ *
+ * <p>An index holds a single entry and a store always replaces it. A table is not
+ * thread-safe: every {@link Search} owns one, which also keeps the entries of one search
+ * close together in the cache.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class PawnHashTable {
+
+    /** Entries of the table each search owns: 65536, under 2 MB */
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    /** King squares value of an entry whose shield has not been computed */
+    private static final int NO_KINGS = -1;
+
+    private final long[] keys;
+    private final int[] structures;
+    private final long[] passedPawns;
+    private final int[] shieldKings;
+    private final int[] shields;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param entries the number of entries (a power of two, at least 1)
+     * @throws IllegalArgumentException if the size is not a positive power of two
+     */
+    public PawnHashTable(int entries) {
+        if (entries < 1 || Integer.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Pawn hash size must be a power of two, got: " + entries);
+        }
+        this.keys = new long[entries];
+        this.structures = new int[entries];
+        this.passedPawns = new long[entries];
+        this.shieldKings = new int[entries];
+        this.shields = new int[entries];
+        this.mask = entries - 1;
+        clear();
+    }
+
+    /**
+     * Returns the number of entries the table holds.
+     *
+     * @return the entry capacity
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Removes every entry and resets the hit counters.
+     */
+    public void clear() {
+        // Key 0 is the pawn key of a board without pawns, so empty entries must not match it
+        Arrays.fill(keys, -1L);
+        Arrays.fill(shieldKings, NO_KINGS);
+        probes = 0;
+        hits = 0;
+    }
+
+    /**
+     * Looks up a pawn structure.
+     *
+     * @param key the pawn key
+     * @return the entry index, or -1 if the structure is not stored
+     */
+    public int probe(long key) {
+        int index = (int) key & mask;
+        probes++;
+        if (keys[index] == key) {
+            hits++;
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a pawn structure evaluation, replacing whatever shares its index.
+     *
+     * @param key the pawn key
+     * @param structure the packed structure score from White's point of view
+     * @param passed the passed pawns of both colors
+     * @return the entry index
+     */
+    public int store(long key, int structure, long passed) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        structures[index] = structure;
+        passedPawns[index] = passed;
+        shieldKings[index] = NO_KINGS;
+        return index;
+    }
+
+    /**
+     * Returns the packed structure score of an entry.
+     *
+     * @param index the entry index from {@link #probe(long)} or {@link #store(long, int, long)}
+     * @return the score from White's point of view
+     */
+    public int structure(int index) {
+        return structures[index];
+    }
+
+    /**
+     * Returns the passed pawns of an entry.
+     *
+     * @param index the entry index
+     * @return the bitboard of passed pawns of both colors
+     */
+    public long passedPawns(int index) {
+        return passedPawns[index];
+    }
+
+    /**
+     * Returns true if the entry holds a king shield score for the given king squares.
+     *
+     * @param index the entry index
+     * @param kings the king squares, as {@link #kings(int, int)}
+     * @return true if {@link #shield(int)} is valid for these kings
+     */
+    public boolean hasShield(int index, int kings) {
+        return shieldKings[index] == kings;
+    }
+
+    /**
+     * Returns the packed king shield score of an entry.
+     *
+     * @param index the entry index
+     * @return the score from White's point of view
+     */
+    public int shield(int index) {
+        return shields[index];
+    }
+
+    /**
+     * Stores the king shield score of an entry.
+     *
+     * @param index the entry index
+     * @param kings the king squares, as {@link #kings(int, int)}
+     * @param shield the packed score from White's point of view
+     */
+    public void storeShield(int index, int kings, int shield) {
+        shieldKings[index] = kings;
+        shields[index] = shield;
+    }
+
+    /**
+     * Combines the two king squares into the value a shield score is stored under.
+     *
+     * @param whiteKing the white king's square (0-63), or -1 for none
+     * @param blackKing the black king's square (0-63), or -1 for none
+     * @return the combined squares
+     */
+    public static int kings(int whiteKing, int blackKing) {
+        return (whiteKing + 1) | (blackKing + 1) << 7;
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or cleared.
+     *
+     * @return the probe count
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of lookups that found their structure.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,879 @@
+package com.consolechess.engine;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import com.consolechess.MoveList;
+import com.consolechess.PieceColor;
+import com.consolechess.PieceType;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.function.Consumer;
+
+/**
+ * Chooses a move by iterative-deepening negamax alpha-beta search.
+ *
+ * <p>Each iteration searches one ply deeper than the last, using principal variation
+ * search (PVS): the first move of a node is searched with the full window and the rest
+ * with a null window, re-searching only the moves that unexpectedly beat the best score.
+ * From {@link #ASPIRATION_MIN_DEPTH} on, the root window is narrowed around the previous
+ * iteration's score and widened again on a fail low or fail high. Results are shared
+ * through the {@link TranspositionTable}. Moves are tried in the order of a staged
+ * {@link MovePicker}: the table's best move, winning captures, killer moves, the
+ * counter-move and then quiet moves by history score. At the leaves a quiescence search
+ * plays out captures and promotions, skipping those that lose material by
+ * {@link StaticExchange static exchange evaluation}.</p>
+ *
+ * <p>The tree is shaped by the selective techniques of {@link SearchFeature}: null-move
+ * pruning, late move reductions, reverse futility and futility pruning cut it down,
+ * check extensions deepen forcing lines. Each can be disabled on its own.</p>
+ *
+ * <p>Consecutive searches within a game build on each other: the transposition table,
+ * history and counter-move tables carry over (history at half weight), and when the new
+ * root is the position two plies down the previous principal variation, the killer moves
+ * shift up two plies and the rest of that line is put back into the table as move hints.
+ * Call {@link #newGame()} between games.</p>
+ *
+ * <p>How long to think is up to a {@link TimeManager}: the search thread itself checks the
+ * hard deadline every few thousand nodes and the soft one after each iteration. A ponder
+ * search ignores both until {@link #ponderHit()} turns it into the real search.</p>
+ *
+ * <p>The search runs on a private copy of the board, so the caller's board is never
+ * changed. A Search instance is not thread-safe apart from {@link #stop()},
+ * {@link #ponderHit()} and {@link #getNodes()}, which may be called from any thread;
+ * several instances may share one transposition table, which is how
+ * {@link ParallelSearch} runs them.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class Search {
+
+    /** Deepest iteration the search will start */
+    public static final int MAX_DEPTH = 64;
+
+    /** Most plies from the root a line can reach */
+    public static final int MAX_PLY = 128;
+
+    /** Score of delivering mate at the root; mate in n plies scores {@code MATE - n} */
+    public static final int MATE = 30000;
+
+    /** Scores at or beyond this magnitude announce a forced mate */
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    /** Bound larger than any score */
+    public static final int INFINITY = 32000;
+
+    /** First iteration searched with an aspiration window */
+    static final int ASPIRATION_MIN_DEPTH = 4;
+
+    /** Initial half-width of the aspiration window in centipawns */
+    static final int ASPIRATION_DELTA = 25;
+
+    private static final int BOARD_SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+
+    /** Bound on the magnitude of history scores */
+    static final int HISTORY_MAX = 16384;
+
+    /** Nodes searched between two looks at the clock and node count publications */
+    private static final int TIME_CHECK_INTERVAL = 2048;
+
+    /** Shallowest depth at which a null move is tried */
+    static final int NULL_MOVE_MIN_DEPTH = 3;
+
+    /** Base depth reduction of the null move search; one more ply every 6 plies of depth */
+    static final int NULL_MOVE_REDUCTION = 3;
+
+    /** Shallowest depth at which a null move cutoff is verified by a normal search */
+    static final int NULL_MOVE_VERIFY_DEPTH = 10;
+
+    /** Deepest node where reverse futility pruning applies */
+    static final int REVERSE_FUTILITY_MAX_DEPTH = 6;
+
+    /** Reverse futility margin per ply of remaining depth, in centipawns */
+    static final int REVERSE_FUTILITY_MARGIN = 90;
+
+    /** Deepest node where futility pruning applies */
+    static final int FUTILITY_MAX_DEPTH = 3;
+
+    /** Futility margin per ply of remaining depth, in centipawns */
+    static final int FUTILITY_MARGIN = 150;
+
+    /** Shallowest depth at which late moves are reduced */
+    static final int LMR_MIN_DEPTH = 3;
+
+    /** Moves searched at full depth before reductions start */
+    static final int LMR_MIN_MOVES = 3;
+
+    /** Late move reduction by [depth][number of moves searched before], growing with both */
+    private static final int[][] LMR_REDUCTIONS = new int[MAX_DEPTH][MoveList.CAPACITY];
+
+    static {
+        for (int depth = 1; depth < MAX_DEPTH; depth++) {
+            for (int moves = 1; moves < MoveList.CAPACITY; moves++) {
+                LMR_REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    private final TranspositionTable transpositionTable;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    private final int[][] quietsTried = new int[MAX_PLY][MoveList.CAPACITY];
+
+    // Move ordering heuristics, learned from beta cutoffs during the search
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][BOARD_SQUARES][BOARD_SQUARES];
+    private final int[][] counterMoves = new int[BOARD_SQUARES][BOARD_SQUARES];
+
+    private final EnumSet<SearchFeature> features = EnumSet.allOf(SearchFeature.class);
+
+    // Evaluations and pawn structure evaluations of this thread; they depend on the
+    // position alone, so they stay valid across searches and games
+    private final EvaluationCache evaluationCache = new EvaluationCache(EvaluationCache.DEFAULT_ENTRIES);
+    private final PawnHashTable pawnTable = new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES);
+    private final AttackMaps attackMaps = new AttackMaps();
+    private final StaticExchange exchange = new StaticExchange();
+
+    private volatile boolean stopped;
+    /** True while a ponder search waits for its ponder hit; time limits do not apply */
+    private volatile boolean pondering;
+    private TimeManager timeManager;
+    private Board board;
+    private SearchLimits limits;
+    /** Principal variation of the previous search, from {@link #board} as its root */
+    private int[] previousLine = new int[0];
+    private long startTime;
+    private long nodes;
+    /** Copy of {@link #nodes} for other threads, refreshed at every limit check */
+    private volatile long reportedNodes;
+    /** Null moves are not tried before this ply while a null move cutoff is being verified */
+    private int nullMoveMinPly;
+
+    /**
+     * Creates a search that stores its results in the given table.
+     *
+     * @param transpositionTable the table to use (not null)
+     */
+    public Search(TranspositionTable transpositionTable) {
+        if (transpositionTable == null) {
+            throw new IllegalArgumentException("Transposition table cannot be null");
+        }
+        this.transpositionTable = transpositionTable;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+            pickers[ply] = new MovePicker(exchange);
+        }
+    }
+
+    /**
+     * Searches the position for the best move of the side to move.
+     *
+     * @param position the position to search (not null; not modified)
+     * @param limits when to stop (not null)
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        return search(position, limits, null);
+    }
+
+    /**
+     * Searches the position for the best move of the side to move, reporting every
+     * completed iteration.
+     *
+     * <p>If the side to move has no legal move the result has no best move and scores
+     * the checkmate or stalemate. If a limit is hit before the first iteration
+     * completes, the first legal move is returned so there is always a move to play.</p>
+     *
+     * @param position the position to search (not null; not modified)
+     * @param limits when to stop (not null)
+     * @param listener called with the result of each completed iteration, or null
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(Board position, SearchLimits limits, Consumer<SearchResult> listener) {
+        prepare(limits);
+        transpositionTable.newSearch();
+        return run(position, limits, listener, 0);
+    }
+
+    /**
+     * Clears the stop flag and starts the clock of the next {@link #run}. Called on the
+     * thread that starts the search, so that a {@link #stop()} or {@link #ponderHit()}
+     * that follows is never lost, even if the search thread has not started yet.
+     *
+     * @param limits the limits the next run will search with (not null)
+     */
+    void prepare(SearchLimits limits) {
+        this.timeManager = new TimeManager(limits, System.currentTimeMillis());
+        this.pondering = limits.isPonder();
+        this.stopped = false;
+    }
+
+    /**
+     * Runs the iterative deepening loop as one thread of a {@link ParallelSearch}. The
+     * caller starts the table's search generation and calls {@link #prepare} beforehand.
+     *
+     * <p>Threads with an odd index start at depth 2, so that half of the threads stay one
+     * iteration ahead of the others and fill the shared table for them (Lazy SMP).</p>
+     *
+     * @param position the position to search (not null; not modified)
+     * @param limits when to stop (not null)
+     * @param listener called with the result of each completed iteration, or null
+     * @param threadIndex 0 for the main thread, 1 and up for helpers
+     * @return the result of the deepest completed iteration
+     */
+    SearchResult run(Board position, SearchLimits limits, Consumer<SearchResult> listener, int threadIndex) {
+        boolean expected = followsPreviousLine(position);
+        this.board = new Board(position);
+        this.limits = limits;
+        this.startTime = System.currentTimeMillis();
+        this.nodes = 0;
+        this.reportedNodes = 0;
+        this.nullMoveMinPly = 0;
+        reuseHeuristics(expected);
+
+        MoveList rootMoves = moveLists[0];
+        board.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = board.isInCheck(board.getSideToMove()) ? -MATE : 0;
+            return new SearchResult(new int[0], score, 0, 0, elapsed());
+        }
+
+        SearchResult best = new SearchResult(new int[] {rootMoves.get(0)}, evaluate(), 0, 0, 0);
+        int previousScore = 0;
+        int startDepth = Math.min(1 + threadIndex % 2, limits.getDepth());
+        for (int depth = startDepth; depth <= limits.getDepth(); depth++) {
+            int score = searchRoot(depth, previousScore);
+            if (stopped) {
+                // An interrupted iteration has not looked at every move; keep the last complete one
+                break;
+            }
+            int[] pv = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, pv, 0, pv.length);
+            best = new SearchResult(pv, score, depth, nodes, elapsed());
+            if (listener != null) {
+                listener.accept(best);
+            }
+            previousScore = score;
+
+            // A mate that fits inside the searched depth cannot get any shorter
+            if (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+            // The next iteration would most likely not finish in the remaining time
+            boolean outOfTime = timeManager.completeIteration(best.getBestMove(), System.currentTimeMillis());
+            if (outOfTime && !pondering) {
+                break;
+            }
+        }
+        reportedNodes = nodes;
+        previousLine = best.getPrincipalVariation();
+        return new SearchResult(best.getPrincipalVariation(), best.getScore(), best.getDepth(), nodes, elapsed());
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Safe to call from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Tells a ponder search that the opponent played the expected move: from now on it is
+     * the real search and its time limits apply, counted from this moment. Safe to call
+     * from any thread; does nothing if the search is not pondering.
+     */
+    public void ponderHit() {
+        if (pondering) {
+            timeManager.startClock(System.currentTimeMillis());
+            pondering = false;
+        }
+    }
+
+    /**
+     * Returns the number of nodes visited by the current or last search. While a search
+     * runs, the count is updated every few thousand nodes and may be read from any thread.
+     *
+     * @return the node count
+     */
+    public long getNodes() {
+        return reportedNodes;
+    }
+
+    /**
+     * Returns the evaluation cache this search evaluates with. Only read it while no
+     * search is running.
+     *
+     * @return the evaluation cache
+     */
+    EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    /**
+     * Returns the pawn hash table this search evaluates with. Only read it while no
+     * search is running.
+     *
+     * @return the pawn hash table
+     */
+    PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+
+    /**
+     * Enables or disables one of the selective search techniques. Takes effect from the
+     * next search.
+     *
+     * @param feature the technique (not null)
+     * @param enabled whether to use it
+     */
+    public void setFeatureEnabled(SearchFeature feature, boolean enabled) {
+        if (enabled) {
+            features.add(feature);
+        } else {
+            features.remove(feature);
+        }
+    }
+
+    /**
+     * Returns whether a selective search technique is in use.
+     *
+     * @param feature the technique (not null)
+     * @return true if enabled
+     */
+    public boolean isFeatureEnabled(SearchFeature feature) {
+        return features.contains(feature);
+    }
+
+    /**
+     * Forgets everything learned from earlier searches, apart from the transposition
+     * table, which the caller clears. Call between games.
+     */
+    public void newGame() {
+        clearHeuristics();
+        previousLine = new int[0];
+        board = null;
+    }
+
+    /**
+     * Returns true if the position is the root of the previous search followed by the
+     * first two moves of its principal variation: the opponent played the expected reply.
+     */
+    private boolean followsPreviousLine(Board position) {
+        if (board == null || previousLine.length < 2) {
+            return false;
+        }
+        // The previous root is still on the board; it is replaced right after this check
+        for (int i = 0; i < 2; i++) {
+            if (!board.isLegalMove(previousLine[i])) {
+                return false;
+            }
+            board.makeMove(previousLine[i]);
+        }
+        return board.getHash() == position.getHash();
+    }
+
+    /**
+     * Carries the move ordering tables over from the previous search. History and
+     * counter-moves do not depend on the distance from the root, so they are kept, with
+     * history halved so that the new position soon outweighs the old one. Killers are
+     * per ply: they shift two plies up if the game followed the expected line, and are
+     * cleared otherwise.
+     */
+    private void reuseHeuristics(boolean followsLine) {
+        if (followsLine) {
+            for (int ply = 0; ply < MAX_PLY; ply++) {
+                int[] plyKillers = killers[ply];
+                if (ply + 2 < MAX_PLY) {
+                    plyKillers[0] = killers[ply + 2][0];
+                    plyKillers[1] = killers[ply + 2][1];
+                } else {
+                    Arrays.fill(plyKillers, Move.NONE);
+                }
+            }
+            seedExpectedLine();
+        } else {
+            for (int[] plyKillers : killers) {
+                Arrays.fill(plyKillers, Move.NONE);
+            }
+        }
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                for (int to = 0; to < fromHistory.length; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the rest of the previous principal variation back into the transposition
+     * table wherever its positions have lost their move, so that the first iteration
+     * searches the expected line first. An entry that is still there, such as a fail-low
+     * node stored without a move, keeps its depth, score and bound and only gains the
+     * move; a missing one becomes a depth 0 hint that never causes a cutoff.
+     */
+    private void seedExpectedLine() {
+        int played = 0;
+        for (int i = 2; i < previousLine.length && board.isLegalMove(previousLine[i]); i++) {
+            long key = board.getHash();
+            long entry = transpositionTable.probe(key);
+            if (entry == 0) {
+                transpositionTable.store(key, previousLine[i], 0, 0, TranspositionTable.BOUND_UPPER);
+            } else if (TranspositionTable.move(entry) == Move.NONE) {
+                // The stored score is already ply-adjusted, so it goes back unchanged
+                transpositionTable.store(key, previousLine[i], TranspositionTable.score(entry),
+                    TranspositionTable.depth(entry), TranspositionTable.bound(entry));
+            }
+            board.makeMove(previousLine[i]);
+            played++;
+        }
+        for (int i = 0; i < played; i++) {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * Forgets the killer, history and counter-move tables of the previous search.
+     */
+    private void clearHeuristics() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+        for (int[] fromCounters : counterMoves) {
+            Arrays.fill(fromCounters, Move.NONE);
+        }
+    }
+
+    /**
+     * Searches the root to the given depth, starting with an aspiration window around the
+     * previous iteration's score.
+     */
+    private int searchRoot(int depth, int previousScore) {
+        if (depth < ASPIRATION_MIN_DEPTH) {
+            return negamax(depth, -INFINITY, INFINITY, 0);
+        }
+        int delta = ASPIRATION_DELTA;
+        int alpha = Math.max(previousScore - delta, -INFINITY);
+        int beta = Math.min(previousScore + delta, INFINITY);
+        while (true) {
+            int score = negamax(depth, alpha, beta, 0);
+            if (stopped) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    /**
+     * Negamax alpha-beta search with principal variation search.
+     *
+     * @param depth remaining depth in plies
+     * @param alpha lower bound of the window
+     * @param beta upper bound of the window
+     * @param ply distance from the root
+     * @return the score for the side to move
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        nodes++;
+        checkLimits();
+        if (stopped) {
+            return 0;
+        }
+        boolean inCheck = board.isInCheck(board.getSideToMove());
+        if (inCheck && features.contains(SearchFeature.CHECK_EXTENSIONS)) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        if (ply > 0) {
+            if (board.isDraw()) {
+                return 0;
+            }
+            // Mate distance pruning: no line from here can beat a shorter mate already found
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        long key = board.getHash();
+        long entry = transpositionTable.probe(key);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int lastMove = board.getLastMove();
+        int staticEval = inCheck ? -INFINITY : evaluate();
+        if (!pvNode && !inCheck) {
+            // Reverse futility: so far above beta that no quiet reply will bring it back
+            if (features.contains(SearchFeature.REVERSE_FUTILITY) && depth <= REVERSE_FUTILITY_MAX_DEPTH
+                    && Math.abs(beta) < MATE_BOUND && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+                return staticEval;
+            }
+            // Null move: a position that still fails high after passing is good enough.
+            // Never two null moves in a row, and not with only pawns left (zugzwang)
+            if (features.contains(SearchFeature.NULL_MOVE) && depth >= NULL_MOVE_MIN_DEPTH
+                    && staticEval >= beta && ply >= nullMoveMinPly && lastMove != Move.NONE
+                    && hasPieces(board.getSideToMove())) {
+                int score = searchNullMove(depth, beta, ply);
+                if (stopped) {
+                    return 0;
+                }
+                if (score >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int counterMove = lastMove == Move.NONE ? Move.NONE : counterMoves[Move.from(lastMove)][Move.to(lastMove)];
+        MovePicker picker = pickers[ply];
+        picker.init(board, ttMove, killers[ply][0], killers[ply][1], counterMove, history);
+
+        // Futility: near the leaves, quiet moves cannot lift a hopeless evaluation to alpha
+        int futilityScore = staticEval + FUTILITY_MARGIN * depth;
+        boolean futile = features.contains(SearchFeature.FUTILITY) && !pvNode && !inCheck
+            && depth <= FUTILITY_MAX_DEPTH && futilityScore <= alpha;
+        boolean reduce = features.contains(SearchFeature.LATE_MOVE_REDUCTIONS) && !inCheck && depth >= LMR_MIN_DEPTH;
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        int legalMoves = 0;
+        int movesSearched = 0;
+        int quietCount = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            legalMoves++;
+            boolean quiet = MovePicker.isQuiet(move);
+            board.makeMove(move);
+            boolean givesCheck = board.isInCheck(board.getSideToMove());
+            if (futile && quiet && !givesCheck && movesSearched > 0) {
+                board.unmakeMove();
+                bestScore = Math.max(bestScore, futilityScore);
+                continue;
+            }
+            int score;
+            if (movesSearched == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                int reduction = 0;
+                if (reduce && quiet && !givesCheck && movesSearched >= LMR_MIN_MOVES) {
+                    reduction = LMR_REDUCTIONS[Math.min(depth, MAX_DEPTH - 1)][movesSearched];
+                    if (pvNode) {
+                        reduction--;
+                    }
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                // A stopped search returns 0, which must not trigger a re-search
+                if (reduction > 0 && score > alpha && !stopped) {
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                }
+                if (score > alpha && score < beta && !stopped) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            movesSearched++;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        if (MovePicker.isQuiet(move)) {
+                            updateQuietHeuristics(ply, depth, move, lastMove, quietsTried[ply], quietCount);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (MovePicker.isQuiet(move)) {
+                quietsTried[ply][quietCount++] = move;
+            }
+        }
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                  : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+                  : TranspositionTable.BOUND_UPPER;
+        // After a fail low every move looked equally bad, so keep the stored move instead
+        int storedMove = bound == TranspositionTable.BOUND_UPPER ? Move.NONE : bestMove;
+        transpositionTable.store(key, storedMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches a null move with a reduced depth and a null window at beta. A cutoff from
+     * deep nodes must be confirmed by a reduced search of the real moves with null moves
+     * disabled for the next plies, which catches most zugzwang positions.
+     *
+     * @return a score of at least beta if the node can be cut off
+     */
+    private int searchNullMove(int depth, int beta, int ply) {
+        int reducedDepth = depth - 1 - NULL_MOVE_REDUCTION - depth / 6;
+        board.makeNullMove();
+        int score = -negamax(reducedDepth, -beta, -beta + 1, ply + 1);
+        board.unmakeNullMove();
+        if (stopped || score < beta) {
+            return score;
+        }
+        // A mate found after passing is not a real mate
+        if (score >= MATE_BOUND) {
+            score = beta;
+        }
+        if (depth < NULL_MOVE_VERIFY_DEPTH) {
+            return score;
+        }
+        int previousMinPly = nullMoveMinPly;
+        nullMoveMinPly = ply + 3 * Math.max(reducedDepth, 0) / 4 + 1;
+        int verified = negamax(reducedDepth, beta - 1, beta, ply);
+        nullMoveMinPly = previousMinPly;
+        return verified >= beta ? score : verified;
+    }
+
+    /**
+     * Returns the static evaluation of the current position, from the evaluation cache
+     * when it was evaluated before.
+     */
+    private int evaluate() {
+        long key = board.getHash();
+        int score = evaluationCache.probe(key);
+        if (score == EvaluationCache.MISS) {
+            score = Evaluator.evaluate(board, pawnTable, attackMaps);
+            evaluationCache.store(key, score);
+        }
+        return score;
+    }
+
+    /**
+     * Returns true if the side has a piece other than pawns and the king, without which
+     * zugzwang is too common to trust a null move.
+     */
+    private boolean hasPieces(PieceColor side) {
+        long pawnsAndKing = board.getPieceBitboard(PieceType.PAWN, side) | board.getPieceBitboard(PieceType.KING, side);
+        return (board.getOccupancy(side) & ~pawnsAndKing) != 0;
+    }
+
+    /**
+     * Quiescence search: resolves captures and promotions at the leaves so that the
+     * static evaluation is never taken in the middle of an exchange (the horizon effect).
+     *
+     * <p>The side to move may "stand pat" on the static evaluation instead of capturing.
+     * Captures that lose material by {@link StaticExchange} are skipped. A side in check
+     * cannot stand pat and searches all of its evasions instead.</p>
+     *
+     * @param alpha lower bound of the window
+     * @param beta upper bound of the window
+     * @param ply distance from the root
+     * @return the score for the side to move
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        nodes++;
+        checkLimits();
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        boolean inCheck = board.isInCheck(board.getSideToMove());
+        MoveList moves = moveLists[ply];
+        int bestScore;
+        if (inCheck) {
+            board.generateLegalMoves(moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+            bestScore = -INFINITY;
+        } else {
+            bestScore = evaluate();
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            board.generateLegalCaptures(moves);
+        }
+        orderCaptures(moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!inCheck && !Move.isPromotion(move) && !exchange.isNonLosing(board, move)) {
+                continue;
+            }
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Sorts captures by most valuable victim, then least valuable attacker (MVV-LVA),
+     * ahead of any quiet moves (which only occur among check evasions).
+     */
+    private void orderCaptures(MoveList moves) {
+        // Insertion sort: capture lists are short
+        for (int i = 1; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int key = captureOrder(move);
+            int j = i - 1;
+            while (j >= 0 && captureOrder(moves.get(j)) < key) {
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            moves.set(j + 1, move);
+        }
+    }
+
+    /**
+     * Returns the MVV-LVA sort key of a move; higher sorts first, quiet moves last.
+     */
+    private int captureOrder(int move) {
+        return Move.isCapture(move) || Move.isPromotion(move) ? MovePicker.mvvLva(board, move) : -1;
+    }
+
+    /**
+     * Rewards a quiet move that caused a beta cutoff: it becomes the first killer of the
+     * ply and the counter-move to the opponent's last move, and its history score rises
+     * while the quiet moves searched before it without success lose score.
+     */
+    private void updateQuietHeuristics(int ply, int depth, int move, int lastMove, int[] triedQuiets, int triedCount) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (lastMove != Move.NONE) {
+            counterMoves[Move.from(lastMove)][Move.to(lastMove)] = move;
+        }
+        int[][] sideHistory = history[board.getSideToMove().ordinal()];
+        int bonus = Math.min(depth * depth, HISTORY_MAX);
+        addHistory(sideHistory, move, bonus);
+        for (int i = 0; i < triedCount; i++) {
+            addHistory(sideHistory, triedQuiets[i], -bonus);
+        }
+    }
+
+    /**
+     * Adds a bonus to a history score, scaled down as the score nears {@link #HISTORY_MAX}
+     * so that scores stay bounded and recent results weigh more than old ones.
+     */
+    private static void addHistory(int[][] sideHistory, int move, int bonus) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        sideHistory[from][to] += bonus - sideHistory[from][to] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+    /**
+     * Makes {@code move} followed by the child's principal variation the PV of this ply.
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][0] = move;
+        int childLength = ply + 1 < MAX_PLY ? pvLength[ply + 1] : 0;
+        if (childLength > 0) {
+            System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, childLength);
+        }
+        pvLength[ply] = childLength + 1;
+    }
+
+    /**
+     * Stops the search when the node or time budget is used up.
+     */
+    private void checkLimits() {
+        if (nodes >= limits.getNodes()) {
+            stopped = true;
+        }
+        if (nodes % TIME_CHECK_INTERVAL == 0) {
+            reportedNodes = nodes;
+            if (!pondering && timeManager.isHardLimitReached(System.currentTimeMillis())) {
+                stopped = true;
+            }
+        }
+    }
+
+    private long elapsed() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Converts a mate score relative to the root into one relative to this node, so that
+     * a table entry stays correct wherever the position is reached.
+     */
+    static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back to one relative to the root.
+     */
+    static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,45 @@
+package com.consolechess.engine;
+
+/**
+ * Selective search techniques that can be switched on and off independently, so that
+ * the effect of each on time-to-depth can be measured with {@link Benchmark}. All of
+ * them are enabled by default.
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public enum SearchFeature {
+
+    /**
+     * Null-move pruning: if passing the turn still fails high on a reduced search, the
+     * node is cut off. Skipped in check, at PV nodes and when the side to move has only
+     * pawns left, where passing may be better than any move (zugzwang); deep cutoffs are
+     * verified by a reduced search without null moves.
+     */
+    NULL_MOVE,
+
+    /**
+     * Late move reductions: quiet moves that come late in the move order are searched
+     * less deeply, and again at full depth only if they beat alpha.
+     */
+    LATE_MOVE_REDUCTIONS,
+
+    /**
+     * Reverse futility pruning: near the leaves, a node whose static evaluation beats
+     * beta by a depth-dependent margin is cut off without searching.
+     */
+    REVERSE_FUTILITY,
+
+    /**
+     * Futility pruning: near the leaves, quiet moves are skipped when the static
+     * evaluation plus a margin cannot reach alpha.
+     */
+    FUTILITY,
+
+    /**
+     * Check extensions: a side in check is searched one ply deeper, so that forcing
+     * lines are not cut off at the horizon.
+     */
+    CHECK_EXTENSIONS
+}
@@ -0,0 +1,203 @@
+package com.consolechess.engine;
+
+/**
+ * Immutable limits for one search: maximum depth, maximum nodes, a time budget and a
+ * game clock. The search stops at whichever limit is reached first; the
+ * {@link TimeManager} turns the time budget and clock into deadlines.
+ *
+ * <p>Start from {@link #infinite()}, {@link #depth(int)}, {@link #nodes(long)},
+ * {@link #time(long)} or {@link #clock(long, long)} and combine further limits with the
+ * {@code with...} methods, e.g. {@code SearchLimits.time(2000).withDepth(12)}. A ponder
+ * search ({@link #withPonder(boolean)}) ignores the time limits until
+ * {@link Search#ponderHit()}.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class SearchLimits {
+
+    private static final SearchLimits INFINITE = new SearchLimits(Search.MAX_DEPTH, Long.MAX_VALUE, 0L, 0L, 0L, false);
+
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+    private final long remainingMillis;
+    private final long incrementMillis;
+    private final boolean ponder;
+
+    private SearchLimits(int depth, long nodes, long timeMillis, long remainingMillis, long incrementMillis,
+                         boolean ponder) {
+        if (depth < 1 || depth > Search.MAX_DEPTH) {
+            throw new IllegalArgumentException(
+                "Depth must be between 1 and " + Search.MAX_DEPTH + ", got: " + depth);
+        }
+        if (nodes < 1) {
+            throw new IllegalArgumentException("Node limit must be positive, got: " + nodes);
+        }
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Time limit cannot be negative, got: " + timeMillis);
+        }
+        if (remainingMillis < 0 || incrementMillis < 0) {
+            throw new IllegalArgumentException("Clock times cannot be negative, got: "
+                + remainingMillis + " + " + incrementMillis);
+        }
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.remainingMillis = remainingMillis;
+        this.incrementMillis = incrementMillis;
+        this.ponder = ponder;
+    }
+
+    /**
+     * Returns limits that only stop at the maximum depth or when the search is stopped.
+     *
+     * @return unlimited search limits
+     */
+    public static SearchLimits infinite() {
+        return INFINITE;
+    }
+
+    /**
+     * Returns limits that stop after completing the given depth.
+     *
+     * @param depth the maximum depth in plies (1 to {@link Search#MAX_DEPTH})
+     * @return the limits
+     * @throws IllegalArgumentException if depth is out of range
+     */
+    public static SearchLimits depth(int depth) {
+        return INFINITE.withDepth(depth);
+    }
+
+    /**
+     * Returns limits that stop after visiting about the given number of nodes.
+     *
+     * @param nodes the node budget (positive)
+     * @return the limits
+     * @throws IllegalArgumentException if nodes is not positive
+     */
+    public static SearchLimits nodes(long nodes) {
+        return INFINITE.withNodes(nodes);
+    }
+
+    /**
+     * Returns limits that stop after the given time.
+     *
+     * @param millis the time budget in milliseconds (positive)
+     * @return the limits
+     * @throws IllegalArgumentException if millis is not positive
+     */
+    public static SearchLimits time(long millis) {
+        return INFINITE.withTime(millis);
+    }
+
+    /**
+     * Returns limits for a move under a game clock.
+     *
+     * @param remainingMillis the time left on the side to move's clock (positive)
+     * @param incrementMillis the time added to the clock after each move (not negative)
+     * @return the limits
+     * @throws IllegalArgumentException if a time is out of range
+     */
+    public static SearchLimits clock(long remainingMillis, long incrementMillis) {
+        return INFINITE.withClock(remainingMillis, incrementMillis);
+    }
+
+    /**
+     * Returns a copy of these limits with a different maximum depth.
+     */
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, nodes, timeMillis, remainingMillis, incrementMillis, ponder);
+    }
+
+    /**
+     * Returns a copy of these limits with a different node budget.
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, nodes, timeMillis, remainingMillis, incrementMillis, ponder);
+    }
+
+    /**
+     * Returns a copy of these limits with a different time budget.
+     */
+    public SearchLimits withTime(long millis) {
+        if (millis < 1) {
+            throw new IllegalArgumentException("Time limit must be positive, got: " + millis);
+        }
+        return new SearchLimits(depth, nodes, millis, remainingMillis, incrementMillis, ponder);
+    }
+
+    /**
+     * Returns a copy of these limits with a different game clock.
+     */
+    public SearchLimits withClock(long remainingMillis, long incrementMillis) {
+        if (remainingMillis < 1) {
+            throw new IllegalArgumentException("Remaining time must be positive, got: " + remainingMillis);
+        }
+        return new SearchLimits(depth, nodes, timeMillis, remainingMillis, incrementMillis, ponder);
+    }
+
+    /**
+     * Returns a copy of these limits that searches as a ponder search, or as a normal one.
+     */
+    public SearchLimits withPonder(boolean ponder) {
+        return new SearchLimits(depth, nodes, timeMillis, remainingMillis, incrementMillis, ponder);
+    }
+
+    /**
+     * Returns the maximum depth in plies.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the node budget ({@link Long#MAX_VALUE} if unlimited).
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the time budget in milliseconds, or 0 if there is none.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Returns true if these limits include a time budget.
+     */
+    public boolean hasTimeLimit() {
+        return timeMillis > 0;
+    }
+
+    /**
+     * Returns the time left on the clock in milliseconds, or 0 if there is no clock.
+     */
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+
+    /**
+     * Returns the clock increment per move in milliseconds.
+     */
+    public long getIncrementMillis() {
+        return incrementMillis;
+    }
+
+    /**
+     * Returns true if these limits include a game clock.
+     */
+    public boolean hasClock() {
+        return remainingMillis > 0;
+    }
+
+    /**
+     * Returns true for a ponder search, which ignores the time limits until the ponder hit.
+     */
+    public boolean isPonder() {
+        return ponder;
+    }
+}
@@ -0,0 +1,143 @@
+package com.consolechess.engine;
+
+import com.consolechess.Move;
+
+/**
+ * Immutable outcome of a search or of one completed iteration: best move, score,
+ * principal variation (PV) and search statistics.
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class SearchResult {
+
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    /**
+     * Creates a search result.
+     *
+     * @param principalVariation the expected line, best move first (copied; may be empty)
+     * @param score the score in centipawns for the side to move, or a mate score
+     * @param depth the completed depth in plies
+     * @param nodes the number of nodes searched
+     * @param timeMillis the elapsed time in milliseconds
+     */
+    public SearchResult(int[] principalVariation, int score, int depth, long nodes, long timeMillis) {
+        this.principalVariation = principalVariation.clone();
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * Returns the best move, or {@link Move#NONE} if the side to move has no legal move.
+     */
+    public int getBestMove() {
+        return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+    }
+
+    /**
+     * Returns the expected reply to the best move, or {@link Move#NONE} if unknown.
+     */
+    public int getPonderMove() {
+        return principalVariation.length > 1 ? principalVariation[1] : Move.NONE;
+    }
+
+    /**
+     * Returns a copy of the principal variation, best move first.
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    /**
+     * Returns the score in centipawns from the side to move's point of view, or a mate
+     * score (see {@link #isMate()}).
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the completed search depth in plies.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of nodes searched.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the elapsed search time in milliseconds.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Returns the search speed in nodes per second.
+     */
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    /**
+     * Returns true if the score announces a forced mate for either side.
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * Returns the number of moves (not plies) to mate: positive if the side to move
+     * mates, negative if it gets mated, 0 if the score is not a mate score.
+     */
+    public int getMateInMoves() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    /**
+     * Formats the score as "cp 35" or "mate 3" / "mate -2".
+     */
+    public String formatScore() {
+        return isMate() ? "mate " + getMateInMoves() : "cp " + score;
+    }
+
+    /**
+     * Formats the principal variation in coordinate notation, e.g. "e2e4 e7e5 g1f3".
+     */
+    public String formatPrincipalVariation() {
+        StringBuilder sb = new StringBuilder();
+        for (int move : principalVariation) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a one-line summary in the style of engine "info" output.
+     */
+    @Override
+    public String toString() {
+        return String.format("depth %d score %s nodes %d nps %d time %d pv %s",
+            depth, formatScore(), nodes, getNodesPerSecond(), timeMillis, formatPrincipalVariation());
+    }
+}
@@ -0,0 +1,142 @@
+package com.consolechess.engine;
+
+import com.consolechess.Move;
+
+/**
+ * Decides how long one search may think, from the {@link SearchLimits} of that search.
+ *
+ * <p>There are two deadlines. The hard deadline is checked by the search thread every few
+ * thousand nodes and aborts the running iteration. The soft deadline is checked between
+ * iterations: once it has passed, the next iteration would most likely not finish and is
+ * not started. With a game clock, the soft budget is an even share of the remaining time
+ * plus most of the increment, stretched while the best move keeps changing between
+ * iterations and shrunk while it is stable. The hard budget is a multiple of it, capped
+ * at a fraction of the remaining time so the clock can never run out. A fixed time
+ * budget stops at the budget and starts no iteration after half of it.</p>
+ *
+ * <p>While pondering, the clock is not running: the deadlines only count from
+ * {@link #startClock(long)}, called on the ponder hit. Time spent pondering does count
+ * towards the soft deadline, so a long think by the opponent lets the search move
+ * sooner. Apart from {@link #startClock(long)}, an instance is used by one search thread.</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class TimeManager {
+
+    /** Moves the remaining time is expected to last when no increment replenishes it */
+    static final int MOVES_TO_GO = 30;
+
+    /** Time reserved on every move for input, output and thread start-up, in milliseconds */
+    static final long MOVE_OVERHEAD_MILLIS = 50;
+
+    /** Hard budget as a multiple of the soft budget */
+    static final int HARD_FACTOR = 5;
+
+    /** Largest share of the remaining time a single move may use */
+    static final int MAX_SHARE_DIVISOR = 4;
+
+    /** Soft budget scale with a best move that has not changed for several iterations */
+    static final double STABLE_SCALE = 0.6;
+
+    /** Soft budget scale added per recent best move change */
+    static final double INSTABILITY_SCALE = 0.8;
+
+    private final long softMillis;
+    private final long hardMillis;
+    private final boolean scalesWithStability;
+    private final long searchStart;
+    private volatile long clockStart;
+    private int previousBestMove;
+    /** Decaying count of best move changes; recent changes weigh most */
+    private double instability;
+
+    /**
+     * Creates the time manager of a search starting now.
+     *
+     * @param limits the limits of the search (not null)
+     * @param startMillis the start of the search, from {@link System#currentTimeMillis()}
+     */
+    public TimeManager(SearchLimits limits, long startMillis) {
+        long soft = Long.MAX_VALUE;
+        long hard = Long.MAX_VALUE;
+        if (limits.hasClock()) {
+            long available = Math.max(1, limits.getRemainingMillis() - MOVE_OVERHEAD_MILLIS);
+            long maximum = Math.max(1, available / MAX_SHARE_DIVISOR + limits.getIncrementMillis());
+            maximum = Math.min(maximum, available);
+            soft = Math.min(available / MOVES_TO_GO + limits.getIncrementMillis() * 3 / 4, maximum);
+            hard = Math.min(soft * HARD_FACTOR, maximum);
+        }
+        if (limits.hasTimeLimit()) {
+            soft = Math.min(soft, limits.getTimeMillis() / 2);
+            hard = Math.min(hard, limits.getTimeMillis());
+        }
+        this.softMillis = soft;
+        this.hardMillis = hard;
+        this.scalesWithStability = limits.hasClock();
+        this.searchStart = startMillis;
+        this.clockStart = startMillis;
+        this.previousBestMove = Move.NONE;
+    }
+
+    /**
+     * Restarts the hard deadline from the given time; called when a ponder search
+     * becomes the real search. Safe to call from any thread.
+     *
+     * @param nowMillis the current time, from {@link System#currentTimeMillis()}
+     */
+    public void startClock(long nowMillis) {
+        clockStart = nowMillis;
+    }
+
+    /**
+     * Returns the soft budget before stability scaling, in milliseconds.
+     *
+     * @return the soft budget, or {@link Long#MAX_VALUE} without a time limit
+     */
+    public long getSoftMillis() {
+        return softMillis;
+    }
+
+    /**
+     * Returns the hard budget in milliseconds.
+     *
+     * @return the hard budget, or {@link Long#MAX_VALUE} without a time limit
+     */
+    public long getHardMillis() {
+        return hardMillis;
+    }
+
+    /**
+     * Returns true once the running iteration must be abandoned.
+     *
+     * @param nowMillis the current time, from {@link System#currentTimeMillis()}
+     * @return true if the hard deadline has passed
+     */
+    public boolean isHardLimitReached(long nowMillis) {
+        return hardMillis != Long.MAX_VALUE && nowMillis - clockStart >= hardMillis;
+    }
+
+    /**
+     * Records the best move of a completed iteration and reports whether another one
+     * should be started.
+     *
+     * @param bestMove the best move of the iteration
+     * @param nowMillis the current time, from {@link System#currentTimeMillis()}
+     * @return true if the search should stop and play its move
+     */
+    public boolean completeIteration(int bestMove, long nowMillis) {
+        instability /= 2;
+        if (previousBestMove != Move.NONE && bestMove != previousBestMove) {
+            instability += 1;
+        }
+        previousBestMove = bestMove;
+        if (softMillis == Long.MAX_VALUE) {
+            return false;
+        }
+        double scale = scalesWithStability ? STABLE_SCALE + INSTABILITY_SCALE * instability : 1.0;
+        long budget = Math.min((long) (softMillis * scale), hardMillis);
+        return nowMillis - searchStart >= budget || isHardLimitReached(nowMillis);
+    }
+}
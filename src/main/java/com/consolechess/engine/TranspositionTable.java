@@ -0,0 +1,238 @@
+package com.consolechess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lock-free transposition table for search results, stored in two parallel
+ * {@code long[]} arrays with no per-entry objects.
+ *
+ * <p>Each entry is one 64-bit data word plus one 64-bit check word:</p>
+ * <ul>
+ *   <li>data bits 0-19: best move ({@link com.consolechess.Move} encoding)</li>
+ *   <li>data bits 20-35: score (signed 16-bit)</li>
+ *   <li>data bits 36-43: search depth (0-255)</li>
+ *   <li>data bits 44-45: bound type ({@link #BOUND_UPPER}, {@link #BOUND_LOWER},
+ *       {@link #BOUND_EXACT})</li>
+ *   <li>data bits 46-51: search generation, used to age out stale entries</li>
+ * </ul>
+ * <p>The check word stores {@code key ^ data} rather than the key itself. Threads read
+ * and write entries without locks, so a reader may see the data word of one write and
+ * the check word of another; such a torn entry fails {@code check ^ data == key} and is
+ * treated as a miss. Every stored entry has a non-zero bound, so a probe result of
+ * {@code 0} always means "not found".</p>
+ *
+ * <p>Entries are grouped in buckets of two that share one index. A store overwrites an
+ * entry with the same key, otherwise the entry that is stale or was searched less deeply
+ * (depth-preferred replacement).</p>
+ *
+ * @author Console Chess Team
+ * @version 1.1
+ * @since 1.1
+ */
+public final class TranspositionTable {
+
+    /** Default table size in megabytes */
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    /** Largest accepted table size in megabytes */
+    public static final int MAX_MEGABYTES = 65536;
+
+    /** Bound type: the score is an upper bound (the search failed low) */
+    public static final int BOUND_UPPER = 1;
+
+    /** Bound type: the score is a lower bound (the search failed high) */
+    public static final int BOUND_LOWER = 2;
+
+    /** Bound type: the score is exact */
+    public static final int BOUND_EXACT = 3;
+
+    /** Bytes used by one entry (data word plus check word) */
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_SIZE = 2;
+
+    private static final int MOVE_BITS = 20;
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final int MAX_DEPTH = 255;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final long[] checks;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Creates a table using about the given amount of memory, rounded down to a power of
+     * two number of buckets.
+     *
+     * @param megabytes the table size in MB (1 to {@link #MAX_MEGABYTES})
+     * @throws IllegalArgumentException if the size is out of range
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException(
+                "Hash size must be between 1 and " + MAX_MEGABYTES + " MB, got: " + megabytes);
+        }
+        long entries = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+        // Keep the arrays within Java's int-indexed limits
+        long buckets = Long.highestOneBit(Math.min(entries / BUCKET_SIZE, 1L << 29));
+        this.checks = new long[(int) buckets * BUCKET_SIZE];
+        this.data = new long[(int) buckets * BUCKET_SIZE];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Returns the number of entries the table holds.
+     *
+     * @return the entry capacity
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Returns the table size in megabytes.
+     *
+     * @return the memory used by the entry arrays in MB
+     */
+    public long sizeInMegabytes() {
+        return (long) data.length * ENTRY_BYTES / (1024 * 1024);
+    }
+
+    /**
+     * Removes every entry.
+     * Must not run concurrently with a search.
+     */
+    public void clear() {
+        Arrays.fill(checks, 0L);
+        Arrays.fill(data, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Starts a new search generation. Entries from earlier generations become the first
+     * candidates for replacement but remain usable until overwritten.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the position's Zobrist key
+     * @return the packed entry, or 0 if the position is not stored; decode it with
+     *         {@link #move(long)}, {@link #score(long)}, {@link #depth(long)} and
+     *         {@link #bound(long)}
+     */
+    public long probe(long key) {
+        int index = (int) key & bucketMask;
+        int first = index * BUCKET_SIZE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if ((checks[slot] ^ entry) == key && entry != 0) {
+                return entry;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result.
+     *
+     * @param key the position's Zobrist key
+     * @param move the best move found, or {@code Move.NONE} to keep the stored one
+     * @param score the score (must fit in 16 bits; mate scores are ply-adjusted by the caller)
+     * @param depth the remaining depth searched (clamped to 0-255)
+     * @param bound one of {@link #BOUND_UPPER}, {@link #BOUND_LOWER}, {@link #BOUND_EXACT}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & bucketMask;
+        int first = index * BUCKET_SIZE;
+        int current = generation;
+
+        int victim = first;
+        int victimValue = Integer.MAX_VALUE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if ((checks[slot] ^ entry) == key && entry != 0) {
+                // Same position: keep a deeper result from this search unless the new one is exact
+                if (bound != BOUND_EXACT && generation(entry) == current && depth(entry) > depth + 2) {
+                    return;
+                }
+                if (move == 0) {
+                    move = move(entry);
+                }
+                victim = slot;
+                break;
+            }
+            // Prefer overwriting entries from old searches, then shallow ones
+            int value = depth(entry) - (generation(entry) == current ? 0 : 2 * MAX_DEPTH);
+            if (value < victimValue) {
+                victimValue = value;
+                victim = slot;
+            }
+        }
+
+        long packed = (move & MOVE_MASK)
+                    | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+                    | ((long) Math.max(0, Math.min(depth, MAX_DEPTH)) << DEPTH_SHIFT)
+                    | ((long) bound << BOUND_SHIFT)
+                    | ((long) current << GENERATION_SHIFT);
+        data[victim] = packed;
+        checks[victim] = key ^ packed;
+    }
+
+    /**
+     * Estimates how full the table is, from a sample of entries written by the current
+     * search generation.
+     *
+     * @return occupancy in permille (0-1000)
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        int current = generation;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && generation(data[i]) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Returns the best move of a packed entry.
+     */
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    /**
+     * Returns the score of a packed entry.
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Returns the search depth of a packed entry.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * Returns the bound type of a packed entry.
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+}
@@ -2,6 +2,7 @@ package com.consolechess;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -126,6 +127,275 @@ public class BoardTest {
         assertFalse(board.isValidMove(from, to, PieceColor.WHITE));
     }
     
+    @Test
+    public void testBitboardOccupancy() {
+        // 16 pieces per side on the first two ranks of each side
+        assertEquals(16, Long.bitCount(board.getOccupancy(PieceColor.WHITE)));
+        assertEquals(16, Long.bitCount(board.getOccupancy(PieceColor.BLACK)));
+        assertEquals(0xFFFFL, board.getOccupancy(PieceColor.BLACK)); // a8..h7 are bits 0-15
+        assertEquals(0xFFFFL << 48, board.getOccupancy(PieceColor.WHITE)); // a2..h1 are bits 48-63
+        
+        // setPiece keeps the bitboards in sync
+        Position e4 = new Position(4, 4);
+        board.setPiece(e4, new Piece(PieceType.KNIGHT, PieceColor.BLACK));
+        assertEquals(1L << 36, board.getPieceBitboard(PieceType.KNIGHT, PieceColor.BLACK) & (1L << 36));
+        board.setPiece(e4, null);
+        assertEquals(0L, board.getOccupancy() & (1L << 36));
+        
+        // Moving a piece updates its bitboard
+        board.makeMove(new Position(6, 4), e4); // e2-e4
+        assertEquals(1L << 36, board.getPieceBitboard(PieceType.PAWN, PieceColor.WHITE) & (1L << 36));
+        assertEquals(0L, board.getOccupancy() & (1L << 52));
+    }
+    
+    @Test
+    public void testLeaperChecks() {
+        assertFalse(board.isInCheck(PieceColor.WHITE));
+        
+        // Black knight on d3 attacks e1
+        board.setPiece(new Position(5, 3), new Piece(PieceType.KNIGHT, PieceColor.BLACK));
+        assertTrue(board.isInCheck(PieceColor.WHITE));
+        board.setPiece(new Position(5, 3), null);
+        
+        // Black pawn on f2 attacks e1, white pawn on d7 attacks e8
+        board.setPiece(new Position(6, 5), new Piece(PieceType.PAWN, PieceColor.BLACK));
+        assertTrue(board.isInCheck(PieceColor.WHITE));
+        board.setPiece(new Position(1, 3), new Piece(PieceType.PAWN, PieceColor.WHITE));
+        assertTrue(board.isInCheck(PieceColor.BLACK));
+        
+        // A pawn directly in front of the king does not give check
+        board.setPiece(new Position(6, 5), new Piece(PieceType.PAWN, PieceColor.WHITE));
+        board.setPiece(new Position(6, 4), new Piece(PieceType.PAWN, PieceColor.BLACK));
+        assertFalse(board.isInCheck(PieceColor.WHITE));
+    }
+    
+    @Test
+    public void testPinnedPieceMovesOnlyAlongPin() {
+        clearBoard();
+        board.setPiece(pos("e1"), new Piece(PieceType.KING, PieceColor.WHITE));
+        board.setPiece(pos("e2"), new Piece(PieceType.ROOK, PieceColor.WHITE));
+        board.setPiece(pos("e8"), new Piece(PieceType.ROOK, PieceColor.BLACK));
+        board.setPiece(pos("a8"), new Piece(PieceType.KING, PieceColor.BLACK));
+        
+        assertTrue(board.isValidMove(pos("e2"), pos("e5"), PieceColor.WHITE));  // along the pin
+        assertTrue(board.isValidMove(pos("e2"), pos("e8"), PieceColor.WHITE));  // capture the pinner
+        assertFalse(board.isValidMove(pos("e2"), pos("d2"), PieceColor.WHITE)); // off the pin
+    }
+    
+    @Test
+    public void testCheckMustBeAnswered() {
+        clearBoard();
+        board.setPiece(pos("e1"), new Piece(PieceType.KING, PieceColor.WHITE));
+        board.setPiece(pos("a2"), new Piece(PieceType.ROOK, PieceColor.WHITE));
+        board.setPiece(pos("b4"), new Piece(PieceType.BISHOP, PieceColor.BLACK));
+        board.setPiece(pos("h8"), new Piece(PieceType.KING, PieceColor.BLACK));
+        
+        assertTrue(board.isInCheck(PieceColor.WHITE));
+        assertTrue(board.isValidMove(pos("a2"), pos("d2"), PieceColor.WHITE));  // block
+        assertFalse(board.isValidMove(pos("a2"), pos("a3"), PieceColor.WHITE)); // ignores check
+        assertFalse(board.isValidMove(pos("e1"), pos("d2"), PieceColor.WHITE)); // stays on the diagonal
+        assertTrue(board.isValidMove(pos("e1"), pos("f1"), PieceColor.WHITE));
+    }
+    
+    @Test
+    public void testEnPassantAndCastlingLegality() {
+        board.makeMove(pos("e2"), pos("e4"));
+        board.makeMove(pos("a7"), pos("a6"));
+        board.makeMove(pos("e4"), pos("e5"));
+        board.makeMove(pos("d7"), pos("d5"));
+        assertTrue(board.isValidMove(pos("e5"), pos("d6"), PieceColor.WHITE));
+        assertTrue(board.getAllValidMoves(PieceColor.WHITE).contains("e5d6 (en passant)"));
+        
+        // Castling is not allowed through an attacked square
+        clearBoard();
+        board.setPiece(pos("e1"), new Piece(PieceType.KING, PieceColor.WHITE));
+        board.setPiece(pos("h1"), new Piece(PieceType.ROOK, PieceColor.WHITE));
+        board.setPiece(pos("a1"), new Piece(PieceType.ROOK, PieceColor.WHITE));
+        board.setPiece(pos("f8"), new Piece(PieceType.ROOK, PieceColor.BLACK));
+        board.setPiece(pos("a8"), new Piece(PieceType.KING, PieceColor.BLACK));
+        assertFalse(board.isValidMove(pos("e1"), pos("g1"), PieceColor.WHITE));
+        assertTrue(board.isValidMove(pos("e1"), pos("c1"), PieceColor.WHITE));
+    }
+    
+    @Test
+    public void testMakeUnmakeRestoresPosition() {
+        String initial = board.saveGameState();
+        
+        // Double push, en passant and castling, then take everything back
+        String[] moves = {"e2e4", "a7a6", "e4e5", "d7d5", "e5d6", "a6a5", "g1f3", "a5a4", "f1e2", "a4a3", "e1g1"};
+        for (String move : moves) {
+            board.makeMove(encode(move.substring(0, 2), move.substring(2)));
+        }
+        assertNull(board.getPiece(pos("d5")));                       // captured en passant
+        assertEquals(PieceType.ROOK, board.getPiece(pos("f1")).getType()); // castled rook
+        assertEquals(PieceColor.BLACK, board.getSideToMove());
+        assertEquals(moves.length, board.getUndoDepth());
+        
+        for (int i = 0; i < moves.length; i++) {
+            board.unmakeMove();
+        }
+        assertEquals(initial, board.saveGameState());
+        assertEquals(PieceColor.WHITE, board.getSideToMove());
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove());
+    }
+    
+    @Test
+    public void testPromotionCaptureIsUndone() {
+        clearBoard();
+        board.setPiece(pos("b7"), new Piece(PieceType.PAWN, PieceColor.WHITE));
+        board.setPiece(pos("a8"), new Piece(PieceType.ROOK, PieceColor.BLACK));
+        board.setPiece(pos("e1"), new Piece(PieceType.KING, PieceColor.WHITE));
+        board.setPiece(pos("e8"), new Piece(PieceType.KING, PieceColor.BLACK));
+        String before = board.saveGameState();
+        
+        board.makeMove(Move.of(pos("b7").toIndex(), pos("a8").toIndex(), Move.CAPTURE, PieceType.QUEEN));
+        assertEquals(new Piece(PieceType.QUEEN, PieceColor.WHITE), board.getPiece(pos("a8")));
+        assertNull(board.getPiece(pos("b7")));
+        
+        board.unmakeMove();
+        assertEquals(new Piece(PieceType.PAWN, PieceColor.WHITE), board.getPiece(pos("b7")));
+        assertEquals(new Piece(PieceType.ROOK, PieceColor.BLACK), board.getPiece(pos("a8")));
+        assertEquals(before, board.saveGameState());
+    }
+    
+    @Test
+    public void testGenerateLegalMoves() {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        assertEquals(20, moves.size());
+        assertTrue(moves.contains(Move.of(pos("e2").toIndex(), pos("e4").toIndex(), Move.DOUBLE_PUSH)));
+        
+        // Each promotion piece is a separate move; only the queen is listed for display
+        clearBoard();
+        board.setPiece(pos("b7"), new Piece(PieceType.PAWN, PieceColor.WHITE));
+        board.setPiece(pos("e1"), new Piece(PieceType.KING, PieceColor.WHITE));
+        board.setPiece(pos("e8"), new Piece(PieceType.KING, PieceColor.BLACK));
+        board.generateLegalMoves(moves);
+        assertEquals(4 + 5, moves.size());
+        int underPromotion = Move.of(pos("b7").toIndex(), pos("b8").toIndex(), 0, PieceType.KNIGHT);
+        assertTrue(moves.contains(underPromotion));
+        assertTrue(board.isLegalMove(underPromotion));
+        assertFalse(board.isLegalMove(Move.of(pos("b7").toIndex(), pos("b8").toIndex(), 0)));
+        assertEquals(underPromotion, board.findLegalMove(pos("b7"), pos("b8"), PieceType.KNIGHT));
+        assertTrue(board.getAllValidMoves(PieceColor.WHITE).contains("b7b8 (promotion)"));
+    }
+    
+    @Test
+    public void testMoveHistoryIsSavedAndLoaded() {
+        String[] moves = {"e2e4", "a7a6", "e4e5", "d7d5", "e5d6", "a6a5", "g1f3", "a5a4", "f1e2", "a4a3", "e1g1"};
+        for (String move : moves) {
+            board.makeMove(encode(move.substring(0, 2), move.substring(2)));
+        }
+        assertEquals("e5d6 e.p.", board.getMoveHistory().get(4));
+        assertEquals("O-O", board.getMoveHistory().get(10));
+        
+        Board loaded = new Board();
+        assertTrue(loaded.loadGameState(board.saveGameState()));
+        assertEquals(board.getMoveHistory(), loaded.getMoveHistory());
+        assertEquals(board.saveGameState(), loaded.saveGameState());
+    }
+    
+    @Test
+    public void testKingSquareIsTracked() {
+        assertEquals(pos("e1").toIndex(), board.getKingSquare(PieceColor.WHITE));
+        assertEquals(pos("e8").toIndex(), board.getKingSquare(PieceColor.BLACK));
+        
+        String[] moves = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "e1g1"};
+        for (String move : moves) {
+            board.makeMove(encode(move.substring(0, 2), move.substring(2)));
+        }
+        assertEquals(pos("g1").toIndex(), board.getKingSquare(PieceColor.WHITE));
+        board.unmakeMove();
+        assertEquals(pos("e1").toIndex(), board.getKingSquare(PieceColor.WHITE));
+        
+        board.setPiece(pos("e8"), null);
+        assertEquals(-1, board.getKingSquare(PieceColor.BLACK));
+        assertFalse(board.isInCheck(PieceColor.BLACK));
+        board.setPiece(pos("d4"), new Piece(PieceType.KING, PieceColor.BLACK));
+        assertEquals(pos("d4").toIndex(), board.getKingSquare(PieceColor.BLACK));
+        
+        assertTrue(board.loadGameState(new Board().saveGameState()));
+        assertEquals(pos("e8").toIndex(), board.getKingSquare(PieceColor.BLACK));
+    }
+    
+    @Test
+    public void testRepetitionAndFiftyMoveRule() {
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (String move : shuffle) {
+            assertFalse(board.isRepetition());
+            board.makeMove(encode(move.substring(0, 2), move.substring(2)));
+        }
+        assertEquals(4, board.getHalfmoveClock());
+        assertTrue(board.isRepetition());
+        assertTrue(board.isDraw());
+        board.unmakeMove();
+        assertFalse(board.isDraw());
+        
+        // A pawn move resets the clock, so earlier positions can no longer repeat
+        board.makeMove(encode("e7", "e5"));
+        assertEquals(0, board.getHalfmoveClock());
+        
+        board.loadFen("8/8/8/4k3/8/8/8/4K2R w - - 99 80");
+        assertFalse(board.isDraw());
+        board.makeMove(encode("h1", "h2"));
+        assertTrue(board.isDraw());
+    }
+    
+    @Test
+    public void testNullMove() {
+        board.loadFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 5");
+        long hash = board.getHash();
+        board.makeNullMove();
+        
+        assertEquals(PieceColor.BLACK, board.getSideToMove());
+        assertEquals(Move.NONE, board.getLastMove());
+        assertNotEquals(hash, board.getHash());
+        // Passing gives up the en passant capture
+        Board withoutEnPassant = new Board();
+        withoutEnPassant.loadFen("4k3/8/8/3pP3/8/8/8/4K3 b - - 0 5");
+        assertEquals(withoutEnPassant.getHash(), board.getHash());
+        
+        board.unmakeNullMove();
+        assertEquals(PieceColor.WHITE, board.getSideToMove());
+        assertEquals(hash, board.getHash());
+        MoveList captures = new MoveList();
+        board.generateLegalCaptures(captures);
+        assertTrue(captures.toString().contains("e5d6"));
+        assertThrows(IllegalStateException.class, () -> board.unmakeNullMove());
+    }
+    
+    @Test
+    public void testGenerateLegalCaptures() {
+        board.loadFen("4k3/1P6/8/3pP3/8/2n5/8/R3K3 w Q d6 0 1");
+        MoveList captures = new MoveList();
+        board.generateLegalCaptures(captures);
+        
+        // Only exd6 e.p. and b8=Q: no under-promotions, castling or quiet moves
+        assertEquals(2, captures.size());
+        assertTrue(captures.toString().contains("e5d6"));
+        assertTrue(captures.toString().contains("b7b8q"));
+        
+        board.loadFen("4k3/8/8/8/8/2n5/8/R3K3 w Q - 0 1");
+        board.generateLegalCaptures(captures);
+        assertTrue(captures.isEmpty());
+    }
+    
+    private int encode(String from, String to) {
+        return board.encodeMove(pos(from).toIndex(), pos(to).toIndex(), null);
+    }
+    
+    private void clearBoard() {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.setPiece(new Position(row, col), null);
+            }
+        }
+    }
+    
+    private static Position pos(String square) {
+        return Position.fromAlgebraic(square);
+    }
+    
     @Test
     public void testBoardToStringFormat() {
         String boardString = board.toString();
@@ -0,0 +1,42 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the magic-bitboard sliding attack tables.
+ */
+public class MagicBitboardsTest {
+    
+    @Test
+    public void testMagicAttacksMatchRayWalk() {
+        Random random = new Random(42);
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 200; i++) {
+                // Sparse random occupancies, like real positions
+                long occupancy = random.nextLong() & random.nextLong();
+                assertEquals(MagicBitboards.slowAttacks(square, occupancy, true),
+                             MagicBitboards.rookAttacks(square, occupancy), "rook on square " + square);
+                assertEquals(MagicBitboards.slowAttacks(square, occupancy, false),
+                             MagicBitboards.bishopAttacks(square, occupancy), "bishop on square " + square);
+            }
+        }
+    }
+    
+    @Test
+    public void testRookAttacksOnEmptyBoard() {
+        // A rook on a8 (square 0) sees the whole 8th rank and a-file: 14 squares
+        assertEquals(14, Long.bitCount(MagicBitboards.rookAttacks(0, 0L)));
+        // A bishop on d4 (row 4, column 3) sees 13 squares
+        assertEquals(13, Long.bitCount(MagicBitboards.bishopAttacks(4 * 8 + 3, 0L)));
+    }
+    
+    @Test
+    public void testBlockersStopRays() {
+        // Rook on a1 (square 56) with a blocker on a4 (square 32): a2, a3, a4 + rank 1
+        long attacks = MagicBitboards.rookAttacks(56, 1L << 32);
+        assertEquals(3 + 7, Long.bitCount(attacks));
+        assertEquals(0L, attacks & (1L << 24)); // a5 is behind the blocker
+    }
+}
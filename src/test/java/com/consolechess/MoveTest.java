@@ -0,0 +1,54 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the int move encoding and MoveList.
+ */
+public class MoveTest {
+
+    private static int square(String notation) {
+        return Position.fromAlgebraic(notation).toIndex();
+    }
+
+    @Test
+    public void testEncodingRoundTrip() {
+        int move = Move.of(square("b7"), square("a8"), Move.CAPTURE, PieceType.QUEEN);
+        assertEquals(square("b7"), Move.from(move));
+        assertEquals(square("a8"), Move.to(move));
+        assertTrue(Move.isCapture(move));
+        assertTrue(Move.isPromotion(move));
+        assertEquals(PieceType.QUEEN, Move.promotion(move));
+        assertFalse(Move.isCastling(move));
+
+        int quiet = Move.of(square("g1"), square("f3"), 0);
+        assertFalse(Move.isCapture(quiet));
+        assertNull(Move.promotion(quiet));
+    }
+
+    @Test
+    public void testNotation() {
+        assertEquals("e2e4", Move.toString(Move.of(square("e2"), square("e4"), Move.DOUBLE_PUSH)));
+        assertEquals("b7a8q", Move.toString(Move.of(square("b7"), square("a8"), Move.CAPTURE, PieceType.QUEEN)));
+        assertEquals("O-O-O", Move.toHistoryNotation(Move.of(square("e8"), square("c8"), Move.CASTLING)));
+        assertEquals("e5d6 e.p.", Move.toHistoryNotation(
+            Move.of(square("e5"), square("d6"), Move.EN_PASSANT | Move.CAPTURE)));
+        assertEquals("0000", Move.toString(Move.NONE));
+    }
+
+    @Test
+    public void testMoveList() {
+        MoveList list = new MoveList();
+        assertTrue(list.isEmpty());
+        list.add(Move.of(square("e2"), square("e4"), Move.DOUBLE_PUSH));
+        list.add(Move.of(square("d2"), square("d4"), Move.DOUBLE_PUSH));
+        assertEquals(2, list.size());
+        assertEquals("e2e4 d2d4", list.toString());
+        list.clear();
+        assertEquals(0, list.size());
+    }
+}
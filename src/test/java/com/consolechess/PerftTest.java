@@ -0,0 +1,76 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Perft node counts against published reference values.
+ * Depths are kept small so the suite stays fast; run {@link Perft#main} for deeper checks.
+ */
+public class PerftTest {
+
+    private static final String KIWIPETE =
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 =
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 =
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    private static long perft(String fen, int depth) {
+        Board board = new Board();
+        if (fen != null) {
+            board.loadFen(fen);
+        }
+        String before = board.saveGameState();
+        long nodes = Perft.perft(board, depth);
+        assertEquals(before, board.saveGameState());
+        return nodes;
+    }
+
+    @Test
+    public void testStartingPosition() {
+        assertEquals(20, perft(null, 1));
+        assertEquals(400, perft(null, 2));
+        assertEquals(8902, perft(null, 3));
+        assertEquals(197281, perft(null, 4));
+    }
+
+    @Test
+    public void testKiwipete() {
+        assertEquals(48, perft(KIWIPETE, 1));
+        assertEquals(2039, perft(KIWIPETE, 2));
+        assertEquals(97862, perft(KIWIPETE, 3));
+    }
+
+    @Test
+    public void testEndgameAndPromotionPositions() {
+        assertEquals(2812, perft(POSITION_3, 3));
+        assertEquals(43238, perft(POSITION_3, 4));
+        assertEquals(9467, perft(POSITION_4, 3));
+        assertEquals(62379, perft(POSITION_5, 3));
+    }
+
+    @Test
+    public void testDivideMatchesPerft() {
+        Board board = new Board();
+        board.loadFen(KIWIPETE);
+        Map<String, Long> counts = Perft.divide(board, 3, ForkJoinPool.commonPool());
+        assertEquals(48, counts.size());
+        assertEquals(97862L, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2059L, counts.get("e1g1")); // castling root move
+    }
+
+    @Test
+    public void testInvalidFenIsRejected() {
+        Board board = new Board();
+        String before = board.saveGameState();
+        assertThrows(IllegalArgumentException.class, () -> board.loadFen("8/8/8 w - -"));
+        assertThrows(IllegalArgumentException.class, () -> board.loadFen("8/8/8/8/8/8/8/8 x - -"));
+        assertEquals(before, board.saveGameState());
+    }
+}
@@ -0,0 +1,113 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the incrementally maintained piece-square score and game phase match a full
+ * recomputation.
+ */
+public class PieceSquareTablesTest {
+
+    private static final String KIWIPETE =
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String PROMOTIONS =
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+
+    /**
+     * Sum the midgame and endgame table values and the phase weights of every piece on the board.
+     */
+    private static int[] recompute(Board board) {
+        int[] scores = new int[3];
+        for (int square = 0; square < Board.BOARD_SIZE * Board.BOARD_SIZE; square++) {
+            Piece piece = board.pieceAt(square);
+            if (piece != null) {
+                scores[0] += PieceSquareTables.midgame(piece.getIndex(), square);
+                scores[1] += PieceSquareTables.endgame(piece.getIndex(), square);
+                scores[2] += PieceSquareTables.phaseWeight(piece.getIndex());
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Walk every move sequence to the given depth, checking the scores after each make and unmake.
+     */
+    private static void verifyTree(Board board, int depth) {
+        int[] expected = recompute(board);
+        assertEquals(Score.make(expected[0], expected[1]), board.getPsqScore());
+        assertEquals(expected[0], board.getMidgameScore());
+        assertEquals(expected[1], board.getEndgameScore());
+        assertEquals(expected[2], board.getPhase());
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            verifyTree(board, depth - 1);
+            board.unmakeMove();
+        }
+        assertEquals(Score.make(expected[0], expected[1]), board.getPsqScore());
+        assertEquals(expected[2], board.getPhase());
+    }
+
+    @Test
+    public void testIncrementalScoresMatchRecomputation() {
+        Board board = new Board();
+        board.loadFen(KIWIPETE);
+        verifyTree(board, 3);
+        board.loadFen(PROMOTIONS);
+        verifyTree(board, 3);
+    }
+
+    @Test
+    public void testTablesAreMirroredForBlack() {
+        // The symmetric starting position scores zero in both phases
+        Board board = new Board();
+        assertEquals(0, board.getMidgameScore());
+        assertEquals(0, board.getEndgameScore());
+
+        int whiteKnightF3 = PieceSquareTables.midgame(Piece.of(PieceType.KNIGHT, PieceColor.WHITE).getIndex(),
+            Position.fromAlgebraic("f3").toIndex());
+        int blackKnightF6 = PieceSquareTables.midgame(Piece.of(PieceType.KNIGHT, PieceColor.BLACK).getIndex(),
+            Position.fromAlgebraic("f6").toIndex());
+        assertEquals(whiteKnightF3, -blackKnightF6);
+    }
+
+    @Test
+    public void testMaterialFromPointValues() {
+        assertEquals(900, PieceSquareTables.materialValue(PieceType.QUEEN));
+        assertEquals(0, PieceSquareTables.materialValue(PieceType.KING));
+
+        // A pawn about to promote is worth much more in the endgame than at home
+        int pawn = Piece.of(PieceType.PAWN, PieceColor.WHITE).getIndex();
+        int seventh = PieceSquareTables.endgame(pawn, Position.fromAlgebraic("d7").toIndex());
+        int second = PieceSquareTables.endgame(pawn, Position.fromAlgebraic("d2").toIndex());
+        assertTrue(seventh > second + 100);
+
+        Board board = new Board();
+        board.setPiece(Position.fromAlgebraic("d2"), null);
+        assertEquals(-PieceSquareTables.midgame(pawn, Position.fromAlgebraic("d2").toIndex()),
+            board.getMidgameScore());
+        assertEquals(board.getMidgameScore(), new Board(board).getMidgameScore());
+    }
+
+    @Test
+    public void testPhaseCountsNonPawnMaterial() {
+        Board board = new Board();
+        assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+
+        board.setPiece(Position.fromAlgebraic("d8"), null);
+        assertEquals(PieceSquareTables.MAX_PHASE - 4, board.getPhase());
+        board.setPiece(Position.fromAlgebraic("a2"), null);
+        assertEquals(PieceSquareTables.MAX_PHASE - 4, board.getPhase());
+        assertEquals(board.getPhase(), new Board(board).getPhase());
+
+        board.loadFen("4k3/pppp4/8/8/8/8/4PPPP/4K3 w - - 0 1");
+        assertEquals(0, board.getPhase());
+    }
+}
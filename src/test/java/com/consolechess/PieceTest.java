@@ -2,6 +2,7 @@ package com.consolechess;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -77,4 +78,25 @@ public class PieceTest {
         
         assertEquals(piece1.hashCode(), piece2.hashCode());
     }
+    
+    @Test
+    public void testCanonicalPieces() {
+        Piece whiteQueen = Piece.of(PieceType.QUEEN, PieceColor.WHITE);
+        assertSame(whiteQueen, Piece.of(PieceType.QUEEN, PieceColor.WHITE));
+        assertEquals(new Piece(PieceType.QUEEN, PieceColor.WHITE), whiteQueen);
+        assertSame(Piece.of(PieceType.QUEEN, PieceColor.BLACK), whiteQueen.withColor(PieceColor.BLACK));
+        assertSame(Piece.of(PieceType.KNIGHT, PieceColor.WHITE), whiteQueen.withType(PieceType.KNIGHT));
+        assertSame(whiteQueen, Piece.fromString("Q", PieceColor.WHITE));
+        
+        // Indices are unique and double as hash codes
+        boolean[] seen = new boolean[Piece.COUNT];
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                Piece piece = Piece.of(type, color);
+                assertEquals(piece.getIndex(), piece.hashCode());
+                assertEquals(false, seen[piece.getIndex()]);
+                seen[piece.getIndex()] = true;
+            }
+        }
+    }
 }
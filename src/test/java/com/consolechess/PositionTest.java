@@ -2,6 +2,8 @@ package com.consolechess;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -77,6 +79,20 @@ public class PositionTest {
         }
     }
     
+    @Test
+    public void testInternedPositions() {
+        for (int index = 0; index < 64; index++) {
+            Position pos = Position.of(index);
+            assertEquals(index, pos.toIndex());
+            assertSame(pos, Position.of(pos.getRow(), pos.getColumn()));
+            assertEquals(new Position(pos.getRow(), pos.getColumn()), pos);
+        }
+        assertSame(Position.of(4, 4), Position.fromAlgebraic("e4"));
+        assertSame(Position.of(3, 4), Position.of(4, 4).add(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(64));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(8, 0));
+    }
+    
     private void assertTrue(boolean condition, String message) {
         if (!condition) {
             throw new AssertionError(message);
@@ -0,0 +1,41 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for packed midgame and endgame scores.
+ */
+public class ScoreTest {
+
+    @Test
+    public void testPackAndUnpackKeepsSigns() {
+        int[] values = {0, 1, -1, 250, -250, 32000, -32000};
+        for (int midgame : values) {
+            for (int endgame : values) {
+                int score = Score.make(midgame, endgame);
+                assertEquals(midgame, Score.midgame(score));
+                assertEquals(endgame, Score.endgame(score));
+            }
+        }
+    }
+
+    @Test
+    public void testArithmeticActsOnBothHalves() {
+        int a = Score.make(-30, 120);
+        int b = Score.make(45, -70);
+        assertEquals(Score.make(15, 50), a + b);
+        assertEquals(Score.make(-75, 190), a - b);
+        assertEquals(Score.make(-90, 360), a * 3);
+        assertEquals(Score.make(30, -120), -a);
+    }
+
+    @Test
+    public void testTaperBlendsByPhase() {
+        int score = Score.make(100, 300);
+        assertEquals(100, Score.taper(score, 24, 24));
+        assertEquals(300, Score.taper(score, 0, 24));
+        assertEquals(200, Score.taper(score, 12, 24));
+    }
+}
@@ -0,0 +1,96 @@
+package com.consolechess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the incrementally maintained Zobrist key matches a full recomputation.
+ */
+public class ZobristTest {
+
+    private static final String KIWIPETE =
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String PROMOTIONS =
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+
+    /**
+     * Walk every move sequence to the given depth, checking the key after each make and unmake.
+     */
+    private static void verifyTree(Board board, int depth) {
+        assertEquals(board.computeHash(), board.getHash());
+        assertEquals(board.computePawnHash(), board.getPawnHash());
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            long before = board.getHash();
+            board.makeMove(moves.get(i));
+            verifyTree(board, depth - 1);
+            board.unmakeMove();
+            assertEquals(before, board.getHash());
+        }
+    }
+
+    @Test
+    public void testIncrementalKeyMatchesRecomputation() {
+        Board board = new Board();
+        board.loadFen(KIWIPETE);
+        verifyTree(board, 3);
+        board.loadFen(PROMOTIONS);
+        verifyTree(board, 3);
+    }
+
+    @Test
+    public void testTranspositionsShareKeys() {
+        Board board = new Board();
+        long start = board.getHash();
+        for (String move : new String[]{"g1f3", "g8f6", "f3g1", "f6g8"}) {
+            board.makeMove(board.findLegalMove(Position.fromAlgebraic(move.substring(0, 2)),
+                                               Position.fromAlgebraic(move.substring(2)), null));
+        }
+        assertEquals(start, board.getHash());
+
+        // Same pieces, different side to move or en passant target: different keys
+        Board other = new Board();
+        other.loadFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        long withTarget = other.getHash();
+        other.loadFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertNotEquals(withTarget, other.getHash());
+        other.loadFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1");
+        assertNotEquals(withTarget, other.getHash());
+    }
+
+    @Test
+    public void testPawnKeyIgnoresOtherPieces() {
+        Board board = new Board();
+        long pawns = board.getPawnHash();
+        board.makeMove(board.findLegalMove(Position.fromAlgebraic("g1"), Position.fromAlgebraic("f3"), null));
+        assertEquals(pawns, board.getPawnHash());
+        board.makeMove(board.findLegalMove(Position.fromAlgebraic("e7"), Position.fromAlgebraic("e5"), null));
+        assertNotEquals(pawns, board.getPawnHash());
+        board.unmakeMove();
+        assertEquals(pawns, board.getPawnHash());
+
+        Board other = new Board();
+        other.loadFen("4k3/pppppppp/8/8/8/8/PPPPPPPP/4K3 w - - 0 1");
+        assertEquals(pawns, other.getPawnHash());
+    }
+
+    @Test
+    public void testSetPieceAndLoadKeepKeyCurrent() {
+        Board board = new Board();
+        board.setPiece(Position.fromAlgebraic("e4"), Piece.of(PieceType.KNIGHT, PieceColor.WHITE));
+        assertEquals(board.computeHash(), board.getHash());
+        board.setPiece(Position.fromAlgebraic("e4"), null);
+        assertEquals(new Board().getHash(), board.getHash());
+
+        Board loaded = new Board();
+        loaded.loadGameState(board.saveGameState());
+        assertEquals(board.getHash(), loaded.getHash());
+        assertEquals(board.getHash(), new Board(board).getHash());
+    }
+}
@@ -0,0 +1,58 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.PieceColor;
+import com.consolechess.PieceType;
+import com.consolechess.Position;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the per-node attack sets shared by the evaluation terms.
+ */
+public class AttackMapsTest {
+
+    private static long bit(String square) {
+        return 1L << Position.fromAlgebraic(square).toIndex();
+    }
+
+    @Test
+    public void testStartingPosition() {
+        AttackMaps attacks = new AttackMaps();
+        attacks.compute(new Board());
+
+        // Knights, bishops, rooks and queen of each side, White's first
+        assertEquals(0, attacks.begin(PieceColor.WHITE));
+        assertEquals(7, attacks.end(PieceColor.WHITE));
+        assertEquals(7, attacks.begin(PieceColor.BLACK));
+        assertEquals(14, attacks.end(PieceColor.BLACK));
+
+        assertEquals(0xFFL << 40, attacks.attackedBy(PieceColor.WHITE, PieceType.PAWN));
+        assertEquals(bit("a3") | bit("c3") | bit("f3") | bit("h3") | bit("d2") | bit("e2"),
+            attacks.attackedBy(PieceColor.WHITE, PieceType.KNIGHT));
+        // d3 is guarded by two pawns, a3 by a pawn and a knight, a2 by the rook alone
+        long twice = attacks.attackedTwice(PieceColor.WHITE);
+        assertTrue((twice & bit("d3")) != 0);
+        assertTrue((twice & bit("a3")) != 0);
+        assertTrue((attacks.attacked(PieceColor.WHITE) & bit("a2")) != 0);
+        assertEquals(0L, twice & bit("a2"));
+    }
+
+    @Test
+    public void testSlidersStopAtFirstPiece() {
+        Board board = new Board();
+        board.loadFen("4k3/8/8/8/3p4/8/8/R2QK3 w - - 0 1");
+        AttackMaps attacks = new AttackMaps();
+        attacks.compute(board);
+
+        long rook = attacks.attackedBy(PieceColor.WHITE, PieceType.ROOK);
+        assertTrue((rook & bit("d1")) != 0);
+        assertEquals(0L, rook & bit("e1"));
+        long queen = attacks.attackedBy(PieceColor.WHITE, PieceType.QUEEN);
+        assertTrue((queen & bit("d4")) != 0);
+        assertEquals(0L, queen & bit("d5"));
+        assertEquals(bit("e8") | attacks.attackedBy(PieceColor.BLACK, PieceType.KING), attacks.kingZone(PieceColor.BLACK));
+    }
+}
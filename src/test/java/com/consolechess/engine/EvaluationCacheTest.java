@@ -0,0 +1,50 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the always-replace evaluation cache.
+ */
+public class EvaluationCacheTest {
+
+    @Test
+    public void testStoreAndProbeRoundTrip() {
+        EvaluationCache cache = new EvaluationCache(64);
+        long key = 0x123456789ABCDEFL;
+        assertEquals(EvaluationCache.MISS, cache.probe(key));
+
+        for (int score : new int[] {0, 1, -1, 250, -250, 32000, -32000}) {
+            cache.store(key, score);
+            assertEquals(score, cache.probe(key));
+        }
+        // Same entry, different upper key bits
+        assertEquals(EvaluationCache.MISS, cache.probe(key ^ 1L << 40));
+        assertEquals(9, cache.getProbes());
+        assertEquals(7, cache.getHits());
+    }
+
+    @Test
+    public void testNewestEvaluationReplacesEntry() {
+        EvaluationCache cache = new EvaluationCache(64);
+        long first = 0x1111_0000_0000_0005L;
+        long second = 0x2222_0000_0000_0005L;
+        cache.store(first, 40);
+        cache.store(second, -15);
+        assertEquals(EvaluationCache.MISS, cache.probe(first));
+        assertEquals(-15, cache.probe(second));
+
+        cache.clear();
+        assertEquals(EvaluationCache.MISS, cache.probe(second));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testSizeMustBePowerOfTwo() {
+        assertEquals(EvaluationCache.DEFAULT_ENTRIES, new EvaluationCache(EvaluationCache.DEFAULT_ENTRIES).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(48));
+    }
+}
@@ -0,0 +1,179 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.PieceColor;
+import com.consolechess.PieceSquareTables;
+import com.consolechess.PieceType;
+import com.consolechess.Position;
+import com.consolechess.Score;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the tapered static evaluation.
+ */
+public class EvaluatorTest {
+
+    private static int square(String name) {
+        return Position.fromAlgebraic(name).toIndex();
+    }
+
+    @Test
+    public void testStartingPositionIsBalanced() {
+        Board board = new Board();
+        assertEquals(0, Evaluator.evaluate(board));
+        assertEquals(PieceSquareTables.MAX_PHASE, Evaluator.phase(board));
+    }
+
+    @Test
+    public void testScoreIsRelativeToSideToMove() {
+        Board board = new Board();
+        board.loadFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1");
+        int white = Evaluator.evaluate(board);
+        board.loadFen("4k3/8/8/3P4/8/8/8/4K3 b - - 0 1");
+        assertEquals(-white, Evaluator.evaluate(board));
+        assertTrue(white > 0);
+    }
+
+    @Test
+    public void testPassedPawns() {
+        Board board = new Board();
+        board.loadFen("4k3/2p5/8/3P4/8/8/5P2/4K3 w - - 0 1");
+        // An enemy pawn on an adjacent file ahead blocks d5; f2 and c7 are unopposed
+        assertFalse(Evaluator.isPassedPawn(board, square("d5"), PieceColor.WHITE));
+        assertTrue(Evaluator.isPassedPawn(board, square("f2"), PieceColor.WHITE));
+        assertFalse(Evaluator.isPassedPawn(board, square("c7"), PieceColor.BLACK));
+        board.loadFen("4k3/2p5/8/8/8/8/5P2/4K3 w - - 0 1");
+        assertTrue(Evaluator.isPassedPawn(board, square("c7"), PieceColor.BLACK));
+    }
+
+    @Test
+    public void testPassedPawnMattersMoreInTheEndgame() {
+        Board board = new Board();
+        // The same advanced passer with and without all the pieces on the board
+        board.loadFen("rnbqkbnr/8/1P6/8/8/8/8/RNBQKBNR w KQkq - 0 1");
+        int midgame = Evaluator.evaluate(board);
+        board.loadFen("4k3/8/1P6/8/8/8/8/4K3 w - - 0 1");
+        int endgame = Evaluator.evaluate(board);
+        assertEquals(0, Evaluator.phase(board));
+        assertTrue(endgame > midgame + 100);
+    }
+
+    @Test
+    public void testPawnStructurePenalties() {
+        Board board = new Board();
+        // Healthy: connected pawns on c2, d2, e2
+        board.loadFen("4k3/8/8/8/8/8/2PPP3/4K3 w - - 0 1");
+        int healthy = Evaluator.pawnStructure(board, Evaluator.passedPawns(board));
+        assertEquals(3 * Evaluator.PASSED_PAWN[1], healthy);
+
+        // Doubled and isolated: a2 and a3
+        board.loadFen("4k3/8/8/8/8/P7/P7/4K3 w - - 0 1");
+        int doubled = Evaluator.pawnStructure(board, Evaluator.passedPawns(board));
+        assertEquals(Evaluator.DOUBLED_PAWN + 2 * Evaluator.ISOLATED_PAWN
+            + Evaluator.PASSED_PAWN[1] + Evaluator.PASSED_PAWN[2], doubled);
+
+        // Backward: c4 and e4 are ahead of d3, and black pawns on c5 and e5 guard d4.
+        // No pawn is passed; the black pawns are isolated.
+        board.loadFen("4k3/8/8/2p1p3/2P1P3/3P4/8/4K3 w - - 0 1");
+        assertEquals(0L, Evaluator.passedPawns(board));
+        assertEquals(Evaluator.BACKWARD_PAWN - 2 * Evaluator.ISOLATED_PAWN,
+            Evaluator.pawnStructure(board, Evaluator.passedPawns(board)));
+    }
+
+    @Test
+    public void testKingShield() {
+        Board board = new Board();
+        board.loadFen("6k1/8/8/8/8/8/5PPP/6K1 w - - 0 1");
+        assertEquals(3 * Evaluator.KING_SHIELD, Evaluator.kingShields(board));
+        board.loadFen("6k1/8/8/8/8/5PPP/8/6K1 w - - 0 1");
+        assertEquals(3 * Evaluator.KING_SHIELD, Evaluator.kingShields(board));
+        board.loadFen("6k1/8/8/8/5PPP/8/8/6K1 w - - 0 1");
+        assertEquals(Score.ZERO, Evaluator.kingShields(board));
+        board.loadFen("6k1/5ppp/8/8/8/8/5PP1/6K1 w - - 0 1");
+        assertEquals(-Evaluator.KING_SHIELD, Evaluator.kingShields(board));
+    }
+
+    @Test
+    public void testKingsRaceToPassedPawns() {
+        Board board = new Board();
+        board.loadFen("8/8/8/1P6/1K6/8/8/7k w - - 0 1");
+        int escorted = Evaluator.evaluate(board);
+        board.loadFen("8/8/8/1P6/8/8/8/K6k w - - 0 1");
+        assertTrue(escorted > Evaluator.evaluate(board));
+    }
+
+    @Test
+    public void testMobilityRewardsActivePieces() {
+        Board board = new Board();
+        AttackMaps attacks = new AttackMaps();
+        board.loadFen("4k3/8/8/8/3N4/8/8/4K3 w - - 0 1");
+        attacks.compute(board);
+        int centre = Evaluator.mobilityAndKingAttack(board, PieceColor.WHITE, attacks);
+        assertEquals(Evaluator.MOBILITY[PieceType.KNIGHT.ordinal()][8], centre);
+
+        board.loadFen("4k3/8/8/8/8/8/8/N3K3 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(Evaluator.MOBILITY[PieceType.KNIGHT.ordinal()][2],
+            Evaluator.mobilityAndKingAttack(board, PieceColor.WHITE, attacks));
+
+        // Squares guarded by enemy pawns do not count
+        board.loadFen("4k3/8/2p1p3/8/3N4/8/8/4K3 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(Evaluator.MOBILITY[PieceType.KNIGHT.ordinal()][6],
+            Evaluator.mobilityAndKingAttack(board, PieceColor.WHITE, attacks));
+    }
+
+    @Test
+    public void testKingAttackNeedsTwoPieces() {
+        Board board = new Board();
+        AttackMaps attacks = new AttackMaps();
+        // The queen hits g7 and the knight f7: 5 + 2 attack units
+        board.loadFen("6k1/5ppp/8/4N3/8/8/8/4K1Q1 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(mobility(board, attacks) + Evaluator.KING_DANGER[7],
+            Evaluator.mobilityAndKingAttack(board, PieceColor.WHITE, attacks));
+
+        // The queen alone is no king attack
+        board.loadFen("6k1/5ppp/8/8/8/8/8/4K1Q1 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(mobility(board, attacks), Evaluator.mobilityAndKingAttack(board, PieceColor.WHITE, attacks));
+    }
+
+    /**
+     * Sum the mobility of White's pieces.
+     */
+    private static int mobility(Board board, AttackMaps attacks) {
+        long area = ~(board.getOccupancy(PieceColor.WHITE) | attacks.attackedBy(PieceColor.BLACK, PieceType.PAWN));
+        int score = Score.ZERO;
+        for (int i = attacks.begin(PieceColor.WHITE); i < attacks.end(PieceColor.WHITE); i++) {
+            score += Evaluator.MOBILITY[attacks.type(i)][Long.bitCount(attacks.attacks(i) & area)];
+        }
+        return score;
+    }
+
+    @Test
+    public void testThreats() {
+        Board board = new Board();
+        AttackMaps attacks = new AttackMaps();
+        // The pawn on d4 attacks the knight on e5, which nothing defends
+        board.loadFen("4k3/8/8/4n3/3P4/8/8/4K3 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(Evaluator.THREAT_BY_PAWN + Evaluator.HANGING_PIECE,
+            Evaluator.threats(board, PieceColor.WHITE, attacks));
+        assertEquals(Score.ZERO, Evaluator.threats(board, PieceColor.BLACK, attacks));
+
+        board.loadFen("4k3/8/5p2/4n3/3P4/8/8/4K3 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(Evaluator.THREAT_BY_PAWN, Evaluator.threats(board, PieceColor.WHITE, attacks));
+
+        // The knight and rook both attack e5, which only the pawn on f6 defends
+        board.loadFen("4k3/8/5p2/4n3/8/3N4/8/4R1K1 w - - 0 1");
+        attacks.compute(board);
+        assertEquals(Evaluator.UNDERDEFENDED_PIECE, Evaluator.threats(board, PieceColor.WHITE, attacks));
+    }
+}
@@ -0,0 +1,73 @@
+package com.consolechess.engine;
+
+import static com.consolechess.engine.TestBoards.fen;
+import static com.consolechess.engine.TestBoards.move;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import com.consolechess.MoveList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the staged move picker.
+ */
+public class MovePickerTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private final int[][][] history = new int[2][64][64];
+
+    @Test
+    public void testReturnsEveryLegalMoveOnce() {
+        Board board = fen(KIWIPETE);
+        MoveList legal = new MoveList();
+        board.generateLegalMoves(legal);
+
+        List<String> picked = pick(board, move(board, "e2a6"), move(board, "a2a3"), Move.NONE, Move.NONE);
+        Set<String> unique = new HashSet<>(picked);
+        assertEquals(legal.size(), picked.size());
+        assertEquals(legal.size(), unique.size());
+        for (int i = 0; i < legal.size(); i++) {
+            assertTrue(unique.contains(Move.toString(legal.get(i))));
+        }
+    }
+
+    @Test
+    public void testStageOrder() {
+        Board board = fen(KIWIPETE);
+        int quiet = move(board, "a1b1");
+        history[0][Move.from(quiet)][Move.to(quiet)] = 500;
+
+        List<String> picked = pick(board, move(board, "e1g1"), move(board, "a2a3"), Move.NONE, move(board, "g2g3"));
+        assertEquals("e1g1", picked.get(0));
+        // Non-losing captures by MVV-LVA: bishop takes bishop, then the pawn captures
+        assertEquals(List.of("e2a6", "d5e6", "g2h3"), picked.subList(1, 4));
+        assertEquals(List.of("a2a3", "g2g3", "a1b1"), picked.subList(4, 7));
+        // Captures that lose material by SEE come last; Qxh3 runs into Rxh3 down the open file
+        assertEquals(List.of("f3f6", "e5d7", "e5f7", "e5g6", "f3h3"), picked.subList(picked.size() - 5, picked.size()));
+    }
+
+    @Test
+    public void testIllegalTableMoveIsSkipped() {
+        Board board = new Board();
+        int bogus = Move.of(Move.from(move(fen(KIWIPETE), "e1g1")), 0, 0);
+        List<String> picked = pick(board, bogus, Move.NONE, Move.NONE, Move.NONE);
+        assertEquals(20, picked.size());
+    }
+
+    private List<String> pick(Board board, int ttMove, int killer1, int killer2, int counterMove) {
+        MovePicker picker = new MovePicker(new StaticExchange());
+        picker.init(board, ttMove, killer1, killer2, counterMove, history);
+        List<String> picked = new ArrayList<>();
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            picked.add(Move.toString(move));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,105 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import com.consolechess.Position;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Lazy SMP parallel search.
+ */
+public class ParallelSearchTest {
+
+    @Test
+    public void testHelpersAgreeOnForcedMove() {
+        Board board = new Board();
+        board.loadFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 4)) {
+            assertEquals(4, search.getThreads());
+            for (int i = 0; i < 3; i++) {
+                SearchResult result = search.search(board, SearchLimits.depth(5));
+                assertEquals("a1a8", Move.toString(result.getBestMove()));
+                assertEquals(1, result.getMateInMoves());
+            }
+        }
+    }
+
+    @Test
+    public void testDepthAndNodesOfAllThreads() {
+        Board board = new Board();
+        String before = board.saveGameState();
+        List<SearchResult> iterations = new ArrayList<>();
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 3)) {
+            SearchResult result = search.search(board, SearchLimits.depth(5), iterations::add);
+
+            assertEquals(5, result.getDepth());
+            assertEquals(5, iterations.size());
+            assertTrue(result.getNodes() >= iterations.get(iterations.size() - 1).getNodes());
+            assertTrue(board.isLegalMove(result.getBestMove()));
+        }
+        assertEquals(before, board.saveGameState());
+    }
+
+    @Test
+    public void testPonderSearchRunsUntilPonderHit() throws Exception {
+        Board board = new Board();
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 2)) {
+            // A tiny clock would stop a normal search at once; a ponder search ignores it
+            Future<SearchResult> ponder = search.start(board, SearchLimits.clock(100, 0).withPonder(true), null);
+            board.makeMove(board.findLegalMove(Position.of(6, 4), Position.of(4, 4), null));
+            Thread.sleep(300);
+            assertFalse(ponder.isDone());
+
+            search.ponderHit();
+            SearchResult result = ponder.get(5, TimeUnit.SECONDS);
+            assertTrue(new Board().isLegalMove(result.getBestMove()));
+            assertTrue(result.getDepth() >= 1);
+        }
+    }
+
+    @Test
+    public void testStopEndsBackgroundSearch() throws Exception {
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 1)) {
+            Future<SearchResult> running = search.start(new Board(), SearchLimits.infinite(), null);
+            search.stop();
+            SearchResult result = running.get(5, TimeUnit.SECONDS);
+            assertTrue(new Board().isLegalMove(result.getBestMove()));
+        }
+    }
+
+    @Test
+    public void testNewGameForgetsEarlierSearches() {
+        Board board = new Board();
+        board.loadFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long fresh;
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 1)) {
+            fresh = search.search(board, SearchLimits.depth(5)).getNodes();
+        }
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), 1)) {
+            search.search(new Board(), SearchLimits.depth(5));
+            search.search(board, SearchLimits.depth(5));
+            search.newGame();
+            assertEquals(fresh, search.search(board, SearchLimits.depth(5)).getNodes());
+        }
+    }
+
+    @Test
+    public void testThreadCountAndClose() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(table, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(table, ParallelSearch.MAX_THREADS + 1));
+
+        ParallelSearch search = new ParallelSearch(table, 2);
+        search.close();
+        assertThrows(IllegalStateException.class, () -> search.search(new Board(), SearchLimits.depth(1)));
+    }
+}
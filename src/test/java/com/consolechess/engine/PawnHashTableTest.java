@@ -0,0 +1,88 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.MoveList;
+import com.consolechess.Score;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the pawn structure cache.
+ */
+public class PawnHashTableTest {
+
+    private static final String KIWIPETE =
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void testStoreAndProbeRoundTrip() {
+        PawnHashTable table = new PawnHashTable(64);
+        assertEquals(-1, table.probe(0L));
+
+        int structure = Score.make(-25, 40);
+        int index = table.store(0x123456789ABCDEFL, structure, 0xFF00L);
+        assertEquals(index, table.probe(0x123456789ABCDEFL));
+        assertEquals(structure, table.structure(index));
+        assertEquals(0xFF00L, table.passedPawns(index));
+        assertEquals(-1, table.probe(0x123456789ABCDEEL));
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+
+        table.clear();
+        assertEquals(-1, table.probe(0x123456789ABCDEFL));
+        assertEquals(0, table.getHits());
+    }
+
+    @Test
+    public void testShieldIsKeptPerKingSquares() {
+        PawnHashTable table = new PawnHashTable(64);
+        int index = table.store(42L, Score.ZERO, 0L);
+        int kings = PawnHashTable.kings(62, 6);
+        assertFalse(table.hasShield(index, kings));
+
+        table.storeShield(index, kings, Score.make(24, 0));
+        assertTrue(table.hasShield(index, kings));
+        assertFalse(table.hasShield(index, PawnHashTable.kings(61, 6)));
+        assertEquals(Score.make(24, 0), table.shield(index));
+
+        // A new structure at the same index invalidates the shield
+        table.store(42L + 64, Score.ZERO, 0L);
+        assertFalse(table.hasShield(index, kings));
+        assertTrue(PawnHashTable.kings(-1, -1) != PawnHashTable.kings(0, 0));
+    }
+
+    @Test
+    public void testSizeMustBePowerOfTwo() {
+        assertEquals(PawnHashTable.DEFAULT_ENTRIES, new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new PawnHashTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new PawnHashTable(100));
+    }
+
+    @Test
+    public void testCachedEvaluationMatchesFullEvaluation() {
+        // A tiny table forces replacements and shield recomputations along the way
+        PawnHashTable table = new PawnHashTable(4);
+        Board board = new Board();
+        board.loadFen(KIWIPETE);
+        verifyTree(board, table, 3);
+        assertTrue(table.getHits() > 0);
+    }
+
+    private static void verifyTree(Board board, PawnHashTable table, int depth) {
+        assertEquals(Evaluator.evaluate(board), Evaluator.evaluate(board, table, new AttackMaps()));
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            verifyTree(board, table, depth - 1);
+            board.unmakeMove();
+        }
+    }
+}
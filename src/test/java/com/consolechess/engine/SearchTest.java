@@ -0,0 +1,128 @@
+package com.consolechess.engine;
+
+import static com.consolechess.engine.TestBoards.fen;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the iterative-deepening alpha-beta search.
+ */
+public class SearchTest {
+
+    private final Search search = new Search(new TranspositionTable(1));
+
+    @Test
+    public void testFindsMateInOne() {
+        Board board = fen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = search.search(board, SearchLimits.depth(4));
+
+        assertEquals("a1a8", Move.toString(result.getBestMove()));
+        assertTrue(result.isMate());
+        assertEquals(1, result.getMateInMoves());
+        assertEquals("mate 1", result.formatScore());
+    }
+
+    @Test
+    public void testWinsHangingQueen() {
+        Board board = fen("4k3/8/8/3q4/8/8/3R4/3K4 w - - 0 1");
+        SearchResult result = search.search(board, SearchLimits.depth(3));
+
+        assertEquals("d2d5", Move.toString(result.getBestMove()));
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        // At depth 1 only quiescence shows that Qxd5 loses the queen to cxd5
+        Board board = fen("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        SearchResult result = search.search(board, SearchLimits.depth(1));
+
+        assertNotEquals("d1d5", Move.toString(result.getBestMove()));
+        // Queen against two pawns, give or take piece placement
+        assertTrue(Math.abs(result.getScore() - 700) < 100, "score " + result.getScore());
+    }
+
+    @Test
+    public void testIterationsDeepenAndPositionIsUnchanged() {
+        Board board = new Board();
+        String before = board.saveGameState();
+        List<SearchResult> iterations = new ArrayList<>();
+        SearchResult result = search.search(board, SearchLimits.depth(4), iterations::add);
+
+        assertEquals(4, iterations.size());
+        for (int i = 0; i < iterations.size(); i++) {
+            assertEquals(i + 1, iterations.get(i).getDepth());
+        }
+        assertEquals(4, result.getDepth());
+        assertTrue(board.isLegalMove(result.getBestMove()));
+        assertEquals(before, board.saveGameState());
+    }
+
+    @Test
+    public void testNodeLimitStopsSearch() {
+        SearchResult result = search.search(new Board(), SearchLimits.nodes(5000));
+
+        assertTrue(result.getNodes() <= 5000);
+        assertTrue(new Board().isLegalMove(result.getBestMove()));
+    }
+
+    @Test
+    public void testNoLegalMoves() {
+        SearchResult mated = search.search(fen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"), SearchLimits.depth(3));
+        assertEquals(Move.NONE, mated.getBestMove());
+        assertEquals(-Search.MATE, mated.getScore());
+
+        SearchResult stalemate = search.search(fen("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        assertEquals(Move.NONE, stalemate.getBestMove());
+        assertEquals(0, stalemate.getScore());
+    }
+
+    @Test
+    public void testEachFeatureCanBeDisabled() {
+        for (SearchFeature feature : SearchFeature.values()) {
+            Search plain = new Search(new TranspositionTable(1));
+            plain.setFeatureEnabled(feature, false);
+            assertFalse(plain.isFeatureEnabled(feature));
+
+            SearchResult mate = plain.search(fen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), SearchLimits.depth(5));
+            assertEquals("a1a8", Move.toString(mate.getBestMove()), feature.name());
+            SearchResult queen = plain.search(fen("4k3/8/8/3q4/8/8/3R4/3K4 w - - 0 1"), SearchLimits.depth(5));
+            assertEquals("d2d5", Move.toString(queen.getBestMove()), feature.name());
+        }
+    }
+
+    @Test
+    public void testSelectivityReducesNodes() {
+        Search plain = new Search(new TranspositionTable(1));
+        for (SearchFeature feature : SearchFeature.values()) {
+            assertTrue(search.isFeatureEnabled(feature));
+            plain.setFeatureEnabled(feature, false);
+        }
+        Board board = fen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+
+        long selective = search.search(board, SearchLimits.depth(5)).getNodes();
+        long full = plain.search(board, SearchLimits.depth(5)).getNodes();
+        assertTrue(selective < full, selective + " >= " + full);
+    }
+
+    @Test
+    public void testNextMoveReusesPreviousSearch() {
+        Board board = fen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        int[] pv = search.search(board, SearchLimits.depth(6)).getPrincipalVariation();
+        assertTrue(pv.length >= 2);
+        board.makeMove(pv[0]);
+        board.makeMove(pv[1]);
+
+        long reused = search.search(board, SearchLimits.depth(6)).getNodes();
+        long fresh = new Search(new TranspositionTable(1)).search(board, SearchLimits.depth(6)).getNodes();
+        assertTrue(reused < fresh, reused + " >= " + fresh);
+    }
+}
@@ -0,0 +1,57 @@
+package com.consolechess.engine;
+
+import static com.consolechess.engine.TestBoards.fen;
+import static com.consolechess.engine.TestBoards.move;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Board;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for static exchange evaluation.
+ */
+public class StaticExchangeTest {
+
+    @Test
+    public void testUndefendedPawn() {
+        assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5"));
+    }
+
+    @Test
+    public void testExchangeWithXRays() {
+        // Nxe5 Nxe5 Rxe5 Bxe5 Qxe5 Qxe5: black's queen behind the bishop ends it a knight for a pawn down
+        assertEquals(-200, see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5"));
+    }
+
+    @Test
+    public void testDefendedVictims() {
+        assertEquals(0, see("4k3/8/2p5/3q4/8/8/8/3QK3 w - - 0 1", "d1d5"));
+        assertEquals(-800, see("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d1d5"));
+        assertEquals(100, see("4k3/8/8/3p4/8/8/8/3QK3 w - - 0 1", "d1d5"));
+    }
+
+    @Test
+    public void testKingDoesNotCaptureIntoDefendedSquare() {
+        assertEquals(0, see("3rk3/8/8/8/8/8/3R4/3K4 b - - 0 1", "d8d2"));
+        // With the bishop covering d2, Kxd2 is illegal and the rook is simply won
+        assertEquals(500, see("3rk3/8/8/6b1/8/8/3R4/3K4 b - - 0 1", "d8d2"));
+    }
+
+    @Test
+    public void testPromotionAndEnPassant() {
+        assertEquals(800, see("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7a8q"));
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+
+        Board board = fen("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        StaticExchange exchange = new StaticExchange();
+        assertFalse(exchange.isNonLosing(board, move(board, "d1d5")));
+        assertTrue(exchange.isNonLosing(board, move(board, "d1d2")));
+    }
+
+    private static int see(String fen, String move) {
+        Board board = fen(fen);
+        return new StaticExchange().evaluate(board, move(board, move));
+    }
+}
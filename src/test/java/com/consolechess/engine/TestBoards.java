@@ -0,0 +1,38 @@
+package com.consolechess.engine;
+
+import com.consolechess.Board;
+import com.consolechess.Move;
+import com.consolechess.PieceType;
+import com.consolechess.Position;
+
+/**
+ * Positions and moves shared by the engine tests.
+ */
+final class TestBoards {
+
+    private TestBoards() {
+        // Static helpers only
+    }
+
+    /**
+     * Returns a board set up from a FEN string.
+     */
+    static Board fen(String fen) {
+        Board board = new Board();
+        board.loadFen(fen);
+        return board;
+    }
+
+    /**
+     * Returns the legal move given in coordinate notation, e.g. "e2e4" or "a7a8q".
+     */
+    static int move(Board board, String text) {
+        PieceType promotion = text.length() > 4 ? PieceType.fromString(text.substring(4)) : null;
+        int move = board.findLegalMove(Position.fromAlgebraic(text.substring(0, 2)),
+            Position.fromAlgebraic(text.substring(2, 4)), promotion);
+        if (move == Move.NONE) {
+            throw new IllegalArgumentException("Not a legal move: " + text);
+        }
+        return move;
+    }
+}
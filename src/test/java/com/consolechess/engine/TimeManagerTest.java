@@ -0,0 +1,92 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the soft and hard search deadlines.
+ */
+public class TimeManagerTest {
+
+    private static final int MOVE_A = 1 | 2 << 6;
+    private static final int MOVE_B = 3 | 4 << 6;
+
+    @Test
+    public void testClockBudgets() {
+        TimeManager manager = new TimeManager(SearchLimits.clock(60_050, 1000), 0);
+
+        // A 30th of the remaining time plus three quarters of the increment
+        assertEquals(2000 + 750, manager.getSoftMillis());
+        assertEquals(2750 * TimeManager.HARD_FACTOR, manager.getHardMillis());
+        assertFalse(manager.isHardLimitReached(13_749));
+        assertTrue(manager.isHardLimitReached(13_750));
+    }
+
+    @Test
+    public void testLowClockNeverRunsOut() {
+        TimeManager manager = new TimeManager(SearchLimits.clock(450, 0), 0);
+
+        assertTrue(manager.getHardMillis() <= 100);
+        assertTrue(manager.getSoftMillis() <= manager.getHardMillis());
+    }
+
+    @Test
+    public void testFixedTimeAndNoLimit() {
+        TimeManager fixed = new TimeManager(SearchLimits.time(2000), 0);
+        assertEquals(1000, fixed.getSoftMillis());
+        assertEquals(2000, fixed.getHardMillis());
+        assertFalse(fixed.completeIteration(MOVE_A, 999));
+        assertTrue(fixed.completeIteration(MOVE_A, 1000));
+
+        TimeManager unlimited = new TimeManager(SearchLimits.depth(5), 0);
+        assertFalse(unlimited.isHardLimitReached(Long.MAX_VALUE / 2));
+        assertFalse(unlimited.completeIteration(MOVE_A, Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void testUnstableBestMoveGetsMoreTime() {
+        SearchLimits limits = SearchLimits.clock(30_050, 0);
+        long soft = new TimeManager(limits, 0).getSoftMillis();
+        long now = soft - 1;
+
+        // A stable best move stops well before the nominal soft budget
+        TimeManager stable = new TimeManager(limits, 0);
+        stable.completeIteration(MOVE_A, 0);
+        stable.completeIteration(MOVE_A, 0);
+        assertTrue(stable.completeIteration(MOVE_A, now));
+
+        // A best move that just changed keeps searching past it
+        TimeManager unstable = new TimeManager(limits, 0);
+        unstable.completeIteration(MOVE_A, 0);
+        unstable.completeIteration(MOVE_B, 0);
+        assertFalse(unstable.completeIteration(MOVE_A, soft + 1));
+    }
+
+    @Test
+    public void testHardDeadlineCountsFromPonderHit() {
+        TimeManager manager = new TimeManager(SearchLimits.clock(60_050, 0).withPonder(true), 0);
+        long hard = manager.getHardMillis();
+        assertTrue(manager.isHardLimitReached(hard));
+
+        manager.startClock(hard);
+        assertFalse(manager.isHardLimitReached(hard + 1));
+        assertTrue(manager.isHardLimitReached(2 * hard));
+    }
+
+    @Test
+    public void testClockLimitsValidation() {
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.clock(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.clock(1000, -1));
+
+        SearchLimits limits = SearchLimits.clock(5000, 100).withPonder(true);
+        assertTrue(limits.hasClock());
+        assertTrue(limits.isPonder());
+        assertEquals(5000, limits.getRemainingMillis());
+        assertEquals(100, limits.getIncrementMillis());
+        assertFalse(limits.withPonder(false).isPonder());
+    }
+}
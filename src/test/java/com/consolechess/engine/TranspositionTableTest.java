@@ -0,0 +1,69 @@
+package com.consolechess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consolechess.Move;
+import com.consolechess.PieceType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the packed, lock-free transposition table.
+ */
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbeRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(12, 4, Move.CAPTURE, PieceType.KNIGHT);
+        table.store(0x123456789ABCDEFL, move, -31000, 17, TranspositionTable.BOUND_LOWER);
+
+        long entry = table.probe(0x123456789ABCDEFL);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-31000, TranspositionTable.score(entry));
+        assertEquals(17, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(0x123456789ABCDEEL));
+    }
+
+    @Test
+    public void testSizeIsRoundedToPowerOfTwo() {
+        TranspositionTable table = new TranspositionTable(3);
+        assertEquals(2, table.sizeInMegabytes());
+        assertEquals(1, Integer.bitCount(table.capacity()));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testDepthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long stride = table.capacity() / 2; // keys that differ by this map to the same bucket
+        long deep = 5L;
+        long shallow = deep + stride;
+        long newcomer = deep + 2 * stride;
+
+        table.store(deep, Move.NONE, 10, 12, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, Move.NONE, 20, 3, TranspositionTable.BOUND_EXACT);
+        table.store(newcomer, Move.NONE, 30, 6, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(12, TranspositionTable.depth(table.probe(deep)));
+        assertEquals(0L, table.probe(shallow));
+        assertEquals(30, TranspositionTable.score(table.probe(newcomer)));
+
+        // After a new search starts, old entries are replaced first regardless of depth
+        table.newSearch();
+        table.store(shallow, Move.NONE, 40, 1, TranspositionTable.BOUND_UPPER);
+        assertTrue(table.probe(shallow) != 0L);
+    }
+
+    @Test
+    public void testStoreKeepsMoveWhenNoneGiven() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(52, 36, Move.DOUBLE_PUSH);
+        table.store(99L, move, 15, 4, TranspositionTable.BOUND_LOWER);
+        table.store(99L, Move.NONE, 5, 5, TranspositionTable.BOUND_UPPER);
+        assertEquals(move, TranspositionTable.move(table.probe(99L)));
+        assertEquals(5, TranspositionTable.score(table.probe(99L)));
+    }
+}
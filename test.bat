@@ -18,14 +18,14 @@ if not exist "%OUT%" mkdir "%OUT%"
 if not exist "%OUT_TEST%" mkdir "%OUT_TEST%"
 
 echo Compiling main sources...
-javac -d "%OUT%" src\main\java\com\consolechess\*.java
+javac -d "%OUT%" src\main\java\com\consolechess\*.java src\main\java\com\consolechess\engine\*.java
 if errorlevel 1 (
   echo Main compilation failed.
   exit /b 1
 )
 
 echo Compiling test sources...
-javac -cp "%JAR%;%OUT%" -d "%OUT_TEST%" src\test\java\com\consolechess\*.java
+javac -cp "%JAR%;%OUT%" -d "%OUT_TEST%" src\test\java\com\consolechess\*.java src\test\java\com\consolechess\engine\*.java
 if errorlevel 1 (
   echo Test compilation failed.
   exit /b 1